@@ -31,6 +31,24 @@ class BaseConfig<T extends BaseConfig<T>> {
      */
     private int timeout = 60000;
 
+    /**
+     * If pooled connection not used for a <code>timeout</code> time
+     * and current connections amount bigger than minimum idle connections pool size,
+     * then it will closed and removed from pool.
+     */
+    private int idleConnectionTimeout = 10000;
+
+    /**
+     * Maximum amount of requests waiting for a free connection
+     * then all pooled connections are busy.
+     */
+    private int connectionWaitQueueSize = 0;
+
+    /**
+     * Time in milliseconds a request could wait for a free connection
+     */
+    private int connectionWaitTimeout = 0;
+
     private int retryAttempts = 20;
 
     private int retryInterval = 1000;
@@ -57,6 +75,11 @@ class BaseConfig<T extends BaseConfig<T>> {
      */
     private String clientName;
 
+    /**
+     * Share connection between commands without waiting for reply
+     */
+    private boolean pipelining;
+
     BaseConfig() {
     }
 
@@ -67,9 +90,13 @@ class BaseConfig<T extends BaseConfig<T>> {
         setRetryInterval(config.getRetryInterval());
         setDatabase(config.getDatabase());
         setTimeout(config.getTimeout());
+        setIdleConnectionTimeout(config.getIdleConnectionTimeout());
+        setConnectionWaitQueueSize(config.getConnectionWaitQueueSize());
+        setConnectionWaitTimeout(config.getConnectionWaitTimeout());
         setClientName(config.getClientName());
         setPingTimeout(config.getPingTimeout());
         setRefreshConnectionAfterFails(config.getRefreshConnectionAfterFails());
+        setPipelining(config.isPipelining());
     }
 
     /**
@@ -100,6 +127,56 @@ class BaseConfig<T extends BaseConfig<T>> {
         return password;
     }
 
+    /**
+     * If pooled connection not used for a <code>timeout</code> time
+     * and current connections amount bigger than minimum idle connections pool size,
+     * then it will closed and removed from pool.
+     * Value in milliseconds. <code>0</code> disables eviction.
+     * Default is 10000
+     *
+     * @param idleConnectionTimeout
+     */
+    public T setIdleConnectionTimeout(int idleConnectionTimeout) {
+        this.idleConnectionTimeout = idleConnectionTimeout;
+        return (T) this;
+    }
+    public int getIdleConnectionTimeout() {
+        return idleConnectionTimeout;
+    }
+
+    /**
+     * Maximum amount of requests waiting for a free connection
+     * then all pooled connections are busy.
+     * Request is rejected with <code>RedisConnectionException</code> once it's reached.
+     * <code>0</code> means no limit.
+     * Default is 0
+     *
+     * @param connectionWaitQueueSize
+     */
+    public T setConnectionWaitQueueSize(int connectionWaitQueueSize) {
+        this.connectionWaitQueueSize = connectionWaitQueueSize;
+        return (T) this;
+    }
+    public int getConnectionWaitQueueSize() {
+        return connectionWaitQueueSize;
+    }
+
+    /**
+     * Time a request could wait for a free connection.
+     * Request fails with <code>RedisConnectionException</code> after it.
+     * <code>0</code> means no limit.
+     * Default is 0
+     *
+     * @param connectionWaitTimeout - time in milliseconds
+     */
+    public T setConnectionWaitTimeout(int connectionWaitTimeout) {
+        this.connectionWaitTimeout = connectionWaitTimeout;
+        return (T) this;
+    }
+    public int getConnectionWaitTimeout() {
+        return connectionWaitTimeout;
+    }
+
     /**
      * Reconnection attempts amount.
      * Then amount is reached exception will be thrown in case of <b>sync</b> operation usage
@@ -203,5 +280,23 @@ class BaseConfig<T extends BaseConfig<T>> {
         return closeConnectionAfterFailAttempts;
     }
 
+    /**
+     * Connection is returned to pool right after command has been written
+     * to it, so next commands are pipelined over the same connection
+     * without waiting for reply of previous one.
+     * Replies are matched to commands in FIFO order.
+     * Blocking commands always use connection exclusively.
+     * Turned off by default.
+     *
+     * @param pipelining
+     */
+    public T setPipelining(boolean pipelining) {
+        this.pipelining = pipelining;
+        return (T) this;
+    }
+    public boolean isPipelining() {
+        return pipelining;
+    }
+
 
 }
@@ -15,8 +15,13 @@
  */
 package org.redisson;
 
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.redisson.connection.LoadBalancer;
 import org.redisson.connection.RoundRobinLoadBalancer;
+import org.redisson.misc.URIBuilder;
 
 public class BaseMasterSlaveServersConfig<T extends BaseMasterSlaveServersConfig<T>> extends BaseConfig<T> {
 
@@ -25,30 +30,54 @@ public class BaseMasterSlaveServersConfig<T extends BaseMasterSlaveServersConfig
      */
     private LoadBalancer loadBalancer = new RoundRobinLoadBalancer();
 
+    /**
+     * Weights of Redis 'slave' servers used by weighted load balancer
+     */
+    private Map<URI, Integer> slaveWeights = new HashMap<URI, Integer>();
+
     /**
      * Redis 'slave' servers subscription (pub/sub) connection pool size for <b>each</b> slave node
      */
     private int slaveSubscriptionConnectionPoolSize = 25;
 
+    /**
+     * Minimum idle subscription (pub/sub) connection amount for <b>each</b> slave node
+     */
+    private int slaveSubscriptionConnectionMinimumIdleSize = 1;
+
     /**
      * Redis 'slave' servers connection pool size for <b>each</b> slave node
      */
     private int slaveConnectionPoolSize = 100;
 
+    /**
+     * Minimum idle connection amount for <b>each</b> slave node
+     */
+    private int slaveConnectionMinimumIdleSize = 5;
+
     /**
      * Redis 'master' server connection pool size
      */
     private int masterConnectionPoolSize = 100;
 
+    /**
+     * Minimum idle connection amount for 'master' server
+     */
+    private int masterConnectionMinimumIdleSize = 5;
+
     public BaseMasterSlaveServersConfig() {
     }
 
     BaseMasterSlaveServersConfig(T config) {
         super(config);
         setLoadBalancer(config.getLoadBalancer());
+        setSlaveWeights(config.getSlaveWeights());
         setMasterConnectionPoolSize(config.getMasterConnectionPoolSize());
         setSlaveConnectionPoolSize(config.getSlaveConnectionPoolSize());
         setSlaveSubscriptionConnectionPoolSize(config.getSlaveSubscriptionConnectionPoolSize());
+        setMasterConnectionMinimumIdleSize(config.getMasterConnectionMinimumIdleSize());
+        setSlaveConnectionMinimumIdleSize(config.getSlaveConnectionMinimumIdleSize());
+        setSlaveSubscriptionConnectionMinimumIdleSize(config.getSlaveSubscriptionConnectionMinimumIdleSize());
     }
 
     /**
@@ -89,7 +118,9 @@ public class BaseMasterSlaveServersConfig<T extends BaseMasterSlaveServersConfig
      * @return
      *
      * @see org.redisson.connection.RoundRobinLoadBalancer
-     * @see org.redisson.connection.BaseLoadBalancer
+     * @see org.redisson.connection.LatencyAwareLoadBalancer
+     * @see org.redisson.connection.WeightedRoundRobinLoadBalancer
+     * @see org.redisson.connection.RandomLoadBalancer
      */
     public T setLoadBalancer(LoadBalancer loadBalancer) {
         this.loadBalancer = loadBalancer;
@@ -99,6 +130,40 @@ public class BaseMasterSlaveServersConfig<T extends BaseMasterSlaveServersConfig
         return loadBalancer;
     }
 
+    /**
+     * Weight of Redis 'slave' server. Use follow format of address -- host:port
+     * Slave with bigger weight receives proportionally more read operations
+     * then <code>WeightedRoundRobinLoadBalancer</code> is used.
+     * Weight of not specified slave is 1
+     *
+     * @param address
+     * @param weight
+     * @return
+     *
+     * @see org.redisson.connection.WeightedRoundRobinLoadBalancer
+     */
+    public T setSlaveWeight(String address, int weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("weight can't be negative");
+        }
+        slaveWeights.put(URIBuilder.create(address), weight);
+        return (T)this;
+    }
+    public int getSlaveWeight(String host, int port) {
+        for (Map.Entry<URI, Integer> entry : slaveWeights.entrySet()) {
+            if (entry.getKey().getHost().equals(host) && entry.getKey().getPort() == port) {
+                return entry.getValue();
+            }
+        }
+        return 1;
+    }
+    public void setSlaveWeights(Map<URI, Integer> slaveWeights) {
+        this.slaveWeights = new HashMap<URI, Integer>(slaveWeights);
+    }
+    public Map<URI, Integer> getSlaveWeights() {
+        return slaveWeights;
+    }
+
     /**
      * Redis 'slave' servers subscription connection pool size for <b>each</b> slave node
      * Default is 25
@@ -113,5 +178,52 @@ public class BaseMasterSlaveServersConfig<T extends BaseMasterSlaveServersConfig
     public int getSlaveSubscriptionConnectionPoolSize() {
         return slaveSubscriptionConnectionPoolSize;
     }
-    
+
+    /**
+     * Redis 'slave' node minimum idle connection amount for <b>each</b> slave node.
+     * Connections are created at startup and when slave becomes available.
+     * Default is 5
+     *
+     * @param slaveConnectionMinimumIdleSize
+     * @return
+     */
+    public T setSlaveConnectionMinimumIdleSize(int slaveConnectionMinimumIdleSize) {
+        this.slaveConnectionMinimumIdleSize = slaveConnectionMinimumIdleSize;
+        return (T) this;
+    }
+    public int getSlaveConnectionMinimumIdleSize() {
+        return slaveConnectionMinimumIdleSize;
+    }
+
+    /**
+     * Redis 'master' node minimum idle connection amount.
+     * Connections are created at startup and after master change.
+     * Default is 5
+     *
+     * @param masterConnectionMinimumIdleSize
+     * @return
+     */
+    public T setMasterConnectionMinimumIdleSize(int masterConnectionMinimumIdleSize) {
+        this.masterConnectionMinimumIdleSize = masterConnectionMinimumIdleSize;
+        return (T) this;
+    }
+    public int getMasterConnectionMinimumIdleSize() {
+        return masterConnectionMinimumIdleSize;
+    }
+
+    /**
+     * Redis 'slave' node minimum idle subscription (pub/sub) connection amount for <b>each</b> slave node.
+     * Default is 1
+     *
+     * @param slaveSubscriptionConnectionMinimumIdleSize
+     * @return
+     */
+    public T setSlaveSubscriptionConnectionMinimumIdleSize(int slaveSubscriptionConnectionMinimumIdleSize) {
+        this.slaveSubscriptionConnectionMinimumIdleSize = slaveSubscriptionConnectionMinimumIdleSize;
+        return (T) this;
+    }
+    public int getSlaveSubscriptionConnectionMinimumIdleSize() {
+        return slaveSubscriptionConnectionMinimumIdleSize;
+    }
+
 }
@@ -34,6 +34,11 @@ public class ClusterServersConfig extends BaseMasterSlaveServersConfig<ClusterSe
      */
     private int scanInterval = 1000;
 
+    /**
+     * Nodes used for read operations
+     */
+    private ReadMode readMode = ReadMode.MASTER;
+
     public ClusterServersConfig() {
     }
 
@@ -41,6 +46,7 @@ public class ClusterServersConfig extends BaseMasterSlaveServersConfig<ClusterSe
         super(config);
         setNodeAddresses(config.getNodeAddresses());
         setScanInterval(config.getScanInterval());
+        setReadMode(config.getReadMode());
     }
 
     /**
@@ -76,6 +82,21 @@ public class ClusterServersConfig extends BaseMasterSlaveServersConfig<ClusterSe
         return this;
     }
 
+    public ReadMode getReadMode() {
+        return readMode;
+    }
+    /**
+     * Nodes used for read operations. Slave connections are switched
+     * to <code>READONLY</code> mode, so reads from them may return stale data.
+     * Default is <code>ReadMode.MASTER</code>
+     *
+     * @param readMode
+     * @return
+     */
+    public ClusterServersConfig setReadMode(ReadMode readMode) {
+        this.readMode = readMode;
+        return this;
+    }
 
 
 }
@@ -17,7 +17,9 @@ package org.redisson;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
@@ -27,15 +29,18 @@ import java.util.concurrent.atomic.AtomicReference;
 import org.redisson.client.RedisClient;
 import org.redisson.client.RedisConnection;
 import org.redisson.client.RedisException;
-import org.redisson.client.RedisMovedException;
+import org.redisson.client.RedisAskException;
+import org.redisson.client.RedisRedirectException;
 import org.redisson.client.RedisTimeoutException;
 import org.redisson.client.WriteRedisConnectionException;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.protocol.CommandData;
 import org.redisson.client.protocol.CommandsData;
 import org.redisson.client.protocol.RedisCommand;
+import org.redisson.client.protocol.RedisCommands;
 import org.redisson.client.protocol.decoder.MultiDecoder;
 import org.redisson.connection.ConnectionManager;
+import org.redisson.connection.MasterSlaveEntry;
 
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
@@ -54,6 +59,8 @@ public class CommandBatchExecutorService extends CommandExecutorService {
         final CommandData<?, ?> command;
         final int index;
 
+        volatile boolean asking;
+
         public CommandEntry(CommandData<?, ?> command, int index) {
             super();
             this.command = command;
@@ -64,6 +71,21 @@ public class CommandBatchExecutorService extends CommandExecutorService {
             return command;
         }
 
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @param asking - send ASKING before command, used to follow ASK redirection
+         */
+        public void setAsking(boolean asking) {
+            this.asking = asking;
+        }
+
+        public boolean isAsking() {
+            return asking;
+        }
+
         @Override
         public int compareTo(CommandEntry o) {
             return index - o.index;
@@ -93,7 +115,10 @@ public class CommandBatchExecutorService extends CommandExecutorService {
 
     private final AtomicInteger index = new AtomicInteger();
 
-    private ConcurrentMap<Integer, Entry> commands = PlatformDependent.newConcurrentHashMap();
+    /**
+     * Commands grouped by node, each group is sent as single pipeline
+     */
+    private ConcurrentMap<MasterSlaveEntry, Entry> commands = PlatformDependent.newConcurrentHashMap();
 
     private boolean executed;
 
@@ -107,10 +132,11 @@ public class CommandBatchExecutorService extends CommandExecutorService {
         if (executed) {
             throw new IllegalStateException("Batch already executed!");
         }
-        Entry entry = commands.get(slot);
+        MasterSlaveEntry node = connectionManager.getEntry(slot);
+        Entry entry = commands.get(node);
         if (entry == null) {
             entry = new Entry();
-            Entry oldEntry = commands.putIfAbsent(slot, entry);
+            Entry oldEntry = commands.putIfAbsent(node, entry);
             if (oldEntry != null) {
                 entry = oldEntry;
             }
@@ -122,6 +148,16 @@ public class CommandBatchExecutorService extends CommandExecutorService {
         entry.getCommands().add(new CommandEntry(new CommandData<V, R>(mainPromise, messageDecoder, codec, command, params), index.incrementAndGet()));
     }
 
+    /**
+     * Script source is always sent within batch since
+     * NOSCRIPT error can't be handled in the middle of it.
+     */
+    @Override
+    protected <T, R> void evalAsync(boolean readOnlyMode, int slot, Codec codec, RedisCommand<T> evalCommandType,
+            String script, List<Object> keys, Object[] params, Promise<R> mainPromise) {
+        async(readOnlyMode, slot, null, codec, evalCommandType, evalArgs(script, keys, params), mainPromise, null, 0);
+    }
+
     public List<?> execute() {
         return get(executeAsync());
     }
@@ -161,8 +197,8 @@ public class CommandBatchExecutorService extends CommandExecutorService {
         });
 
         AtomicInteger slots = new AtomicInteger(commands.size());
-        for (java.util.Map.Entry<Integer, Entry> e : commands.entrySet()) {
-            execute(e.getValue(), e.getKey(), voidPromise, slots, 0);
+        for (java.util.Map.Entry<MasterSlaveEntry, Entry> e : commands.entrySet()) {
+            execute(e.getValue(), e.getKey().getStartSlot(), voidPromise, slots, 0);
         }
         return promise;
     }
@@ -183,7 +219,11 @@ public class CommandBatchExecutorService extends CommandExecutorService {
                     return;
                 }
                 if (attempt == connectionManager.getConfig().getRetryAttempts()) {
-                    attemptPromise.setFailure(ex.get());
+                    RedisException cause = ex.get();
+                    if (cause == null) {
+                        cause = new RedisTimeoutException();
+                    }
+                    attemptPromise.setFailure(cause);
                     return;
                 }
                 attemptPromise.cancel(true);
@@ -193,6 +233,17 @@ public class CommandBatchExecutorService extends CommandExecutorService {
             }
         };
 
+        // each attempt decodes replies into own promises,
+        // so redirected commands could be repeated on another node
+        final List<CommandEntry> entries = new ArrayList<CommandEntry>(entry.getCommands());
+        final List<CommandData<Object, Object>> attemptCommands = new ArrayList<CommandData<Object, Object>>(entries.size());
+        for (CommandEntry commandEntry : entries) {
+            attemptCommands.add(createAttemptCommand(commandEntry));
+        }
+
+        // timeout covers whole attempt including wait for connection
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(connectionManager.getConfig().getTimeout());
+
         Future<RedisConnection> connectionFuture;
         if (entry.isReadOnlyMode()) {
             connectionFuture = connectionManager.connectionReadOp(slot);
@@ -214,14 +265,21 @@ public class CommandBatchExecutorService extends CommandExecutorService {
 
                 RedisConnection connection = connFuture.getNow();
 
-                ArrayList<CommandData<?, ?>> list = new ArrayList<CommandData<?, ?>>(entry.getCommands().size());
-                for (CommandEntry c : entry.getCommands()) {
-                    list.add(c.getCommand());
+                boolean pipelined = true;
+                ArrayList<CommandData<?, ?>> list = new ArrayList<CommandData<?, ?>>(attemptCommands.size());
+                for (int i = 0; i < attemptCommands.size(); i++) {
+                    CommandData<Object, Object> command = attemptCommands.get(i);
+                    if (entries.get(i).isAsking()) {
+                        Promise<String> askingPromise = connectionManager.newPromise();
+                        list.add(new CommandData<String, String>(askingPromise, command.getCodec(), RedisCommands.ASKING, new Object[] {}));
+                    }
+                    list.add(command);
+                    pipelined &= isPipelined(command.getCommand());
                 }
                 ChannelFuture future = connection.send(new CommandsData(attemptPromise, list));
 
-                ex.set(new RedisTimeoutException());
-                final Timeout timeout = connectionManager.getTimer().newTimeout(retryTimerTask, connectionManager.getConfig().getTimeout(), TimeUnit.MILLISECONDS);
+                ex.set(null);
+                final Timeout timeout = connectionManager.newCommandTimeout(connection, retryTimerTask, deadline);
 
                 future.addListener(new ChannelFutureListener() {
                     @Override
@@ -234,7 +292,14 @@ public class CommandBatchExecutorService extends CommandExecutorService {
                     }
                 });
 
-                if (entry.isReadOnlyMode()) {
+                if (pipelined) {
+                    attemptPromise.addListener(connectionManager.createPipelinedReleaseListener(slot, entry.isReadOnlyMode(), connection, timeout));
+                    if (entry.isReadOnlyMode()) {
+                        connectionManager.releaseRead(slot, connection);
+                    } else {
+                        connectionManager.releaseWrite(slot, connection);
+                    }
+                } else if (entry.isReadOnlyMode()) {
                     attemptPromise.addListener(connectionManager.createReleaseReadListener(slot, connection, timeout));
                 } else {
                     attemptPromise.addListener(connectionManager.createReleaseWriteListener(slot, connection, timeout));
@@ -249,13 +314,8 @@ public class CommandBatchExecutorService extends CommandExecutorService {
                     return;
                 }
 
-                if (future.cause() instanceof RedisMovedException) {
-                    RedisMovedException ex = (RedisMovedException)future.cause();
-                    execute(entry, ex.getSlot(), mainPromise, slots, attempt);
-                    return;
-                }
-
                 if (future.isSuccess()) {
+                    complete(entry.isReadOnlyMode(), entries, attemptCommands, mainPromise, slots, attempt);
                     if (slots.decrementAndGet() == 0) {
                         mainPromise.setSuccess(future.getNow());
                     }
@@ -266,6 +326,91 @@ public class CommandBatchExecutorService extends CommandExecutorService {
         });
     }
 
+    /**
+     * Creates copy of batch command with own promise.
+     */
+    private CommandData<Object, Object> createAttemptCommand(CommandEntry commandEntry) {
+        CommandData<Object, Object> command = (CommandData<Object, Object>) commandEntry.getCommand();
+        Promise<Object> promise = connectionManager.newPromise();
+        return new CommandData<Object, Object>(promise, command.getMessageDecoder(), command.getCodec(), command.getCommand(), command.getParams());
+    }
+
+    /**
+     * Passes replies of attempt to command promises and repeats commands redirected by MOVED or ASK.
+     * Redirected commands are grouped by target node, each group is sent as single pipeline.
+     *
+     * Replies are passed synchronously, since listeners of attempt promises
+     * could be notified after batch result has been built.
+     */
+    private void complete(boolean readOnlyMode, List<CommandEntry> entries, List<CommandData<Object, Object>> attemptCommands,
+                            final Promise<Void> mainPromise, final AtomicInteger slots, final int attempt) {
+        Map<MasterSlaveEntry, Entry> redirects = null;
+        boolean delay = false;
+        for (int i = 0; i < attemptCommands.size(); i++) {
+            Future<Object> future = attemptCommands.get(i).getPromise();
+            CommandEntry commandEntry = entries.get(i);
+            Promise<Object> promise = (Promise<Object>) commandEntry.getCommand().getPromise();
+            if (future.isSuccess()) {
+                promise.trySuccess(future.getNow());
+                continue;
+            }
+            if (!(future.cause() instanceof RedisRedirectException)) {
+                promise.tryFailure(future.cause());
+                continue;
+            }
+
+            RedisRedirectException e = (RedisRedirectException) future.cause();
+            if (attempt == connectionManager.getConfig().getRetryAttempts()) {
+                promise.tryFailure(e);
+                continue;
+            }
+
+            boolean ask = e instanceof RedisAskException;
+            if (!ask) {
+                connectionManager.refreshSlots();
+            }
+
+            int slot = connectionManager.getSlot(e.getUrl());
+            if (slot == -1) {
+                // node is unknown yet, wait for slots refresh
+                slot = e.getSlot();
+                delay = true;
+            }
+
+            if (redirects == null) {
+                redirects = new HashMap<MasterSlaveEntry, Entry>();
+            }
+            MasterSlaveEntry node = connectionManager.getEntry(slot);
+            Entry entry = redirects.get(node);
+            if (entry == null) {
+                entry = new Entry();
+                redirects.put(node, entry);
+            }
+            entry.setReadOnlyMode(readOnlyMode);
+            commandEntry.setAsking(ask);
+            entry.getCommands().add(commandEntry);
+        }
+
+        if (redirects == null) {
+            return;
+        }
+
+        slots.addAndGet(redirects.size());
+        for (final java.util.Map.Entry<MasterSlaveEntry, Entry> e : redirects.entrySet()) {
+            if (!delay) {
+                execute(e.getValue(), e.getKey().getStartSlot(), mainPromise, slots, attempt + 1);
+                continue;
+            }
+
+            connectionManager.newTimeout(new TimerTask() {
+                @Override
+                public void run(Timeout timeout) throws Exception {
+                    execute(e.getValue(), e.getKey().getStartSlot(), mainPromise, slots, attempt + 1);
+                }
+            }, connectionManager.getConfig().getRetryInterval(), TimeUnit.MILLISECONDS);
+        }
+    }
+
     @Override
     public <T, R> R evalRead(String key, RedisCommand<T> evalCommandType, String script, List<Object> keys,
             Object... params) {
@@ -15,31 +15,42 @@
  */
 package org.redisson;
 
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.redisson.client.RedisAskException;
 import org.redisson.client.RedisClient;
 import org.redisson.client.RedisConnection;
 import org.redisson.client.RedisException;
-import org.redisson.client.RedisMovedException;
+import org.redisson.client.RedisRedirectException;
 import org.redisson.client.RedisTimeoutException;
 import org.redisson.client.WriteRedisConnectionException;
 import org.redisson.client.codec.Codec;
+import org.redisson.client.handler.CommandEncoder;
 import org.redisson.client.protocol.CommandData;
 import org.redisson.client.protocol.RedisCommand;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.client.protocol.decoder.LazyValue;
 import org.redisson.client.protocol.decoder.MultiDecoder;
+import org.redisson.client.protocol.decoder.StreamingMultiDecoder;
 import org.redisson.connection.ConnectionManager;
+import org.redisson.connection.MasterSlaveEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.util.Timeout;
@@ -58,8 +69,20 @@ public class CommandExecutorService implements CommandExecutor {
 
     final Logger log = LoggerFactory.getLogger(getClass());
 
+    // commands which block connection until reply and can't be pipelined
+    static final List<String> BLOCKING_COMMANDS = Arrays.asList("BLPOP", "BRPOP", "BRPOPLPUSH");
+
+    private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
+
+    private static final int MAX_CACHED_DIGESTS = 1000;
+
     final ConnectionManager connectionManager;
 
+    final ConcurrentMap<String, String> scriptDigests = new ConcurrentHashMap<String, String>();
+
+    // used to encode commands in caller thread
+    private final CommandEncoder commandEncoder = new CommandEncoder();
+
     public CommandExecutorService(ConnectionManager connectionManager) {
         this.connectionManager = connectionManager;
     }
@@ -73,7 +96,7 @@ public class CommandExecutorService implements CommandExecutor {
         final Promise<Collection<R>> mainPromise = connectionManager.newPromise();
         Promise<R> promise = new DefaultPromise<R>() {
             Queue<R> results = new ConcurrentLinkedQueue<R>();
-            AtomicInteger counter = new AtomicInteger(connectionManager.getEntries().keySet().size());
+            AtomicInteger counter = new AtomicInteger(connectionManager.getEntryList().size());
             @Override
             public Promise<R> setSuccess(R result) {
                 if (result instanceof Collection) {
@@ -97,15 +120,18 @@ public class CommandExecutorService implements CommandExecutor {
 
         };
 
-        for (Integer slot : connectionManager.getEntries().keySet()) {
-            async(true, slot, null, connectionManager.getCodec(), command, params, promise, null, 0);
+        for (MasterSlaveEntry entry : connectionManager.getEntryList()) {
+            async(true, entry.getStartSlot(), null, connectionManager.getCodec(), command, params, promise, null, 0);
         }
         return mainPromise;
     }
 
     public <T, R> Future<R> readRandomAsync(final RedisCommand<T> command, final Object ... params) {
         final Promise<R> mainPromise = connectionManager.newPromise();
-        final List<Integer> slots = new ArrayList<Integer>(connectionManager.getEntries().keySet());
+        final List<Integer> slots = new ArrayList<Integer>();
+        for (MasterSlaveEntry entry : connectionManager.getEntryList()) {
+            slots.add(entry.getStartSlot());
+        }
         Collections.shuffle(slots);
 
         retryReadRandomAsync(command, mainPromise, slots, params);
@@ -149,7 +175,7 @@ public class CommandExecutorService implements CommandExecutor {
     public <T, R> Future<R> allAsync(boolean readOnlyMode, RedisCommand<T> command, final SlotCallback<T, R> callback, Object ... params) {
         final Promise<R> mainPromise = connectionManager.newPromise();
         Promise<T> promise = new DefaultPromise<T>() {
-            AtomicInteger counter = new AtomicInteger(connectionManager.getEntries().keySet().size());
+            AtomicInteger counter = new AtomicInteger(connectionManager.getEntryList().size());
             @Override
             public Promise<T> setSuccess(T result) {
                 if (callback != null) {
@@ -171,8 +197,8 @@ public class CommandExecutorService implements CommandExecutor {
                 return this;
             }
         };
-        for (Integer slot : connectionManager.getEntries().keySet()) {
-            async(readOnlyMode, slot, null, connectionManager.getCodec(), command, params, promise, null, 0);
+        for (MasterSlaveEntry entry : connectionManager.getEntryList()) {
+            async(readOnlyMode, entry.getStartSlot(), null, connectionManager.getCodec(), command, params, promise, null, 0);
         }
         return mainPromise;
     }
@@ -238,15 +264,15 @@ public class CommandExecutorService implements CommandExecutor {
 
     public <R> R write(String key, Codec codec, SyncOperation<R> operation) {
         int slot = connectionManager.calcSlot(key);
-        return async(false, codec, slot, operation, 0);
+        return async(false, codec, slot, operation, 0, false);
     }
 
     public <R> R read(String key, Codec codec, SyncOperation<R> operation) {
         int slot = connectionManager.calcSlot(key);
-        return async(true, codec, slot, operation, 0);
+        return async(true, codec, slot, operation, 0, false);
     }
 
-    private <R> R async(boolean readOnlyMode, Codec codec, int slot, SyncOperation<R> operation, int attempt) {
+    private <R> R async(boolean readOnlyMode, Codec codec, int slot, SyncOperation<R> operation, int attempt, boolean asking) {
         if (!connectionManager.getShutdownLatch().acquire()) {
             return null;
         }
@@ -263,15 +289,31 @@ public class CommandExecutorService implements CommandExecutor {
             RedisConnection connection = connectionFuture.getNow();
 
             try {
+                if (asking) {
+                    connection.sync(RedisCommands.ASKING);
+                }
                 return operation.execute(codec, connection);
-            } catch (RedisMovedException e) {
-                return async(readOnlyMode, codec, e.getSlot(), operation, attempt);
+            } catch (RedisRedirectException e) {
+                if (attempt == connectionManager.getConfig().getRetryAttempts()) {
+                    throw e;
+                }
+                boolean ask = e instanceof RedisAskException;
+                if (!ask) {
+                    connectionManager.refreshSlots();
+                }
+                int redirectSlot = connectionManager.getSlot(e.getUrl());
+                if (redirectSlot == -1) {
+                    // node is unknown till slots update
+                    throw e;
+                }
+                attempt++;
+                return async(readOnlyMode, codec, redirectSlot, operation, attempt, ask);
             } catch (RedisTimeoutException e) {
                 if (attempt == connectionManager.getConfig().getRetryAttempts()) {
                     throw e;
                 }
                 attempt++;
-                return async(readOnlyMode, codec, slot, operation, attempt);
+                return async(readOnlyMode, codec, slot, operation, attempt, false);
             } finally {
                 connectionManager.getShutdownLatch().release();
                 if (readOnlyMode) {
@@ -290,7 +332,7 @@ public class CommandExecutorService implements CommandExecutor {
                 Thread.currentThread().interrupt();
             }
             attempt++;
-            return async(readOnlyMode, codec, slot, operation, attempt);
+            return async(readOnlyMode, codec, slot, operation, attempt, false);
         }
     }
 
@@ -326,7 +368,7 @@ public class CommandExecutorService implements CommandExecutor {
     public <T, R> Future<R> evalAllAsync(boolean readOnlyMode, RedisCommand<T> command, final SlotCallback<T, R> callback, String script, List<Object> keys, Object ... params) {
         final Promise<R> mainPromise = connectionManager.newPromise();
         Promise<T> promise = new DefaultPromise<T>() {
-            AtomicInteger counter = new AtomicInteger(connectionManager.getEntries().keySet().size());
+            AtomicInteger counter = new AtomicInteger(connectionManager.getEntryList().size());
             @Override
             public Promise<T> setSuccess(T result) {
                 callback.onSlotResult(result);
@@ -344,27 +386,83 @@ public class CommandExecutorService implements CommandExecutor {
             }
         };
 
-        List<Object> args = new ArrayList<Object>(2 + keys.size() + params.length);
-        args.add(script);
-        args.add(keys.size());
-        args.addAll(keys);
-        args.addAll(Arrays.asList(params));
-        for (Integer slot : connectionManager.getEntries().keySet()) {
-            async(readOnlyMode, slot, null, connectionManager.getCodec(), command, args.toArray(), promise, null, 0);
+        for (MasterSlaveEntry entry : connectionManager.getEntryList()) {
+            evalAsync(readOnlyMode, entry.getStartSlot(), connectionManager.getCodec(), command, script, keys, params, promise);
         }
         return mainPromise;
     }
 
     private <T, R> Future<R> evalAsync(boolean readOnlyMode, String key, Codec codec, RedisCommand<T> evalCommandType, String script, List<Object> keys, Object ... params) {
         Promise<R> mainPromise = connectionManager.newPromise();
+        int slot = connectionManager.calcSlot(key);
+        evalAsync(readOnlyMode, slot, codec, evalCommandType, script, keys, params, mainPromise);
+        return mainPromise;
+    }
+
+    /**
+     * Executes script by its SHA1 digest using EVALSHA command.
+     * Script source is sent with EVAL command only if node replies with NOSCRIPT error,
+     * this also loads script to node's script cache. So script cache is filled lazily
+     * on each node including new master after failover.
+     */
+    protected <T, R> void evalAsync(final boolean readOnlyMode, final int slot, final Codec codec, final RedisCommand<T> evalCommandType,
+                    final String script, final List<Object> keys, final Object[] params, final Promise<R> mainPromise) {
+        Object[] shaArgs = evalArgs(sha1(script), keys, params);
+        RedisCommand<T> evalShaCommandType = evalCommandType.getEvalShaCommand();
+        Promise<R> shaPromise = connectionManager.newPromise();
+        async(readOnlyMode, slot, null, codec, evalShaCommandType, shaArgs, shaPromise, null, 0);
+        shaPromise.addListener(new FutureListener<R>() {
+            @Override
+            public void operationComplete(Future<R> future) throws Exception {
+                if (future.cause() instanceof RedisException
+                        && future.cause().getMessage() != null
+                        && future.cause().getMessage().startsWith("NOSCRIPT")) {
+                    Object[] args = evalArgs(script, keys, params);
+                    async(readOnlyMode, slot, null, codec, evalCommandType, args, mainPromise, null, 0);
+                    return;
+                }
+
+                if (future.isSuccess()) {
+                    mainPromise.setSuccess(future.getNow());
+                } else {
+                    mainPromise.setFailure(future.cause());
+                }
+            }
+        });
+    }
+
+    protected Object[] evalArgs(String scriptOrDigest, List<Object> keys, Object[] params) {
         List<Object> args = new ArrayList<Object>(2 + keys.size() + params.length);
-        args.add(script);
+        args.add(scriptOrDigest);
         args.add(keys.size());
         args.addAll(keys);
         args.addAll(Arrays.asList(params));
-        int slot = connectionManager.calcSlot(key);
-        async(readOnlyMode, slot, null, codec, evalCommandType, args.toArray(), mainPromise, null, 0);
-        return mainPromise;
+        return args.toArray();
+    }
+
+    private String sha1(String script) {
+        String digest = scriptDigests.get(script);
+        if (digest != null) {
+            return digest;
+        }
+
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-1");
+            byte[] bytes = md.digest(script.getBytes("UTF-8"));
+            StringBuilder s = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) {
+                s.append(HEX_CHARS[(b >> 4) & 0xF]).append(HEX_CHARS[b & 0xF]);
+            }
+            digest = s.toString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+
+        // scripts are mostly constants, limit cache in case of dynamically generated scripts
+        if (scriptDigests.size() < MAX_CACHED_DIGESTS) {
+            scriptDigests.putIfAbsent(script, digest);
+        }
+        return digest;
     }
 
     public <T, R> R evalWrite(String key, RedisCommand<T> evalCommandType, String script, List<Object> keys, Object ... params) {
@@ -397,14 +495,97 @@ public class CommandExecutorService implements CommandExecutor {
         return mainPromise;
     }
 
+    /**
+     * Connection could be returned to pool right after command has been written
+     * if pipelining is enabled and command doesn't block connection.
+     * Streamed reply could suspend reading from connection, so it isn't pipelined too.
+     */
+    protected boolean isPipelined(RedisCommand<?> command) {
+        return connectionManager.getConfig().isPipelining()
+                && !BLOCKING_COMMANDS.contains(command.getName())
+                && !isStreamed(command);
+    }
+
+    private boolean isStreamed(RedisCommand<?> command) {
+        return command.getReplayMultiDecoder() instanceof StreamingMultiDecoder;
+    }
+
     protected <V, R> void async(final boolean readOnlyMode, final int slot, final MultiDecoder<Object> messageDecoder, final Codec codec, final RedisCommand<V> command,
                             final Object[] params, final Promise<R> mainPromise, final RedisClient client, final int attempt) {
+        async(readOnlyMode, slot, messageDecoder, codec, command, params, mainPromise, client, attempt, false);
+    }
+
+    /**
+     * Extends timeout of streamed reply while its elements are received or consumed.
+     */
+    private class StreamTimerTask implements TimerTask {
+
+        private final Future<?> attemptFuture;
+        private final StreamingMultiDecoder<?> decoder;
+        private final TimerTask timeoutTask;
+        private long lastProgress;
+
+        StreamTimerTask(Future<?> attemptFuture, StreamingMultiDecoder<?> decoder, TimerTask timeoutTask) {
+            this.attemptFuture = attemptFuture;
+            this.decoder = decoder;
+            this.timeoutTask = timeoutTask;
+        }
+
+        @Override
+        public void run(Timeout timeout) throws Exception {
+            if (attemptFuture.isDone()) {
+                return;
+            }
+            long progress = decoder.getProgress();
+            if (progress != lastProgress) {
+                lastProgress = progress;
+                connectionManager.getTimer().newTimeout(this, connectionManager.getConfig().getTimeout(), TimeUnit.MILLISECONDS);
+                return;
+            }
+            timeoutTask.run(timeout);
+        }
+
+    }
+
+    private void releaseFrame(AtomicReference<ByteBuf> encodedFrame) {
+        ByteBuf frame = encodedFrame.getAndSet(null);
+        if (frame != null) {
+            frame.release();
+        }
+    }
+
+    /**
+     * @param asking - send ASKING before command, used to follow ASK redirection
+     */
+    private <V, R> void async(final boolean readOnlyMode, final int slot, final MultiDecoder<Object> messageDecoder, final Codec codec, final RedisCommand<V> command,
+                            final Object[] params, final Promise<R> mainPromise, final RedisClient client, final int attempt, final boolean asking) {
+        // encoded frame is owned by whoever takes it first:
+        // it's either sent or released once attempt is done
+        final AtomicReference<ByteBuf> encodedFrame = new AtomicReference<ByteBuf>();
+        if (connectionManager.isEncodeInCallerThread()) {
+            try {
+                encodedFrame.set(commandEncoder.encode(ByteBufAllocator.DEFAULT, new CommandData<V, R>(mainPromise, messageDecoder, codec, command, params)));
+            } catch (Exception e) {
+                mainPromise.setFailure(e);
+                return;
+            }
+        }
+
         if (!connectionManager.getShutdownLatch().acquire()) {
+            releaseFrame(encodedFrame);
             mainPromise.setFailure(new IllegalStateException("Redisson is shutdown"));
             return;
         }
 
         final Promise<R> attemptPromise = connectionManager.newPromise();
+        if (encodedFrame.get() != null) {
+            attemptPromise.addListener(new FutureListener<R>() {
+                @Override
+                public void operationComplete(Future<R> future) throws Exception {
+                    releaseFrame(encodedFrame);
+                }
+            });
+        }
         final AtomicReference<RedisException> ex = new AtomicReference<RedisException>();
 
         final TimerTask retryTimerTask = new TimerTask() {
@@ -413,8 +594,15 @@ public class CommandExecutorService implements CommandExecutor {
                 if (attemptPromise.isDone()) {
                     return;
                 }
-                if (attempt == connectionManager.getConfig().getRetryAttempts()) {
-                    attemptPromise.setFailure(ex.get());
+                // elements of streamed reply could be already consumed by caller
+                if (attempt == connectionManager.getConfig().getRetryAttempts()
+                        || isStreamed(command)) {
+                    RedisException cause = ex.get();
+                    if (cause == null) {
+                        // exception is created only then timeout actually happens
+                        cause = new RedisTimeoutException();
+                    }
+                    attemptPromise.setFailure(cause);
                     return;
                 }
                 if (!attemptPromise.cancel(false)) {
@@ -426,8 +614,8 @@ public class CommandExecutorService implements CommandExecutor {
             }
         };
 
-        ex.set(new RedisTimeoutException());
-        final Timeout timeout = connectionManager.getTimer().newTimeout(retryTimerTask, connectionManager.getConfig().getTimeout(), TimeUnit.MILLISECONDS);
+        // timeout covers whole attempt including wait for connection
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(connectionManager.getConfig().getTimeout());
 
         Future<RedisConnection> connectionFuture;
         if (readOnlyMode) {
@@ -440,14 +628,25 @@ public class CommandExecutorService implements CommandExecutor {
             connectionFuture = connectionManager.connectionWriteOp(slot);
         }
 
+        // timer is used only while waiting for connection,
+        // timeout of sent command is tracked by its connection
+        final Timeout connectionTimeout;
+        if (connectionFuture.isDone()) {
+            connectionTimeout = null;
+        } else {
+            connectionTimeout = connectionManager.getTimer().newTimeout(retryTimerTask, connectionManager.getConfig().getTimeout(), TimeUnit.MILLISECONDS);
+        }
+
         connectionFuture.addListener(new FutureListener<RedisConnection>() {
             @Override
             public void operationComplete(Future<RedisConnection> connFuture) throws Exception {
                 if (attemptPromise.isCancelled()) {
                     return;
                 }
+                if (connectionTimeout != null) {
+                    connectionTimeout.cancel();
+                }
                 if (!connFuture.isSuccess()) {
-                    timeout.cancel();
                     if (!connectionManager.getShutdownLatch().acquire()) {
                         return;
                     }
@@ -456,10 +655,31 @@ public class CommandExecutorService implements CommandExecutor {
                     return;
                 }
 
-                RedisConnection connection = connFuture.getNow();
+                final RedisConnection connection = connFuture.getNow();
 
                 log.debug("getting connection for command {} from slot {} using node {}", command, slot, connection.getRedisClient().getAddr());
-                ChannelFuture future = connection.send(new CommandData<V, R>(attemptPromise, messageDecoder, codec, command, params));
+                if (asking) {
+                    Promise<String> askingPromise = connectionManager.newPromise();
+                    connection.send(new CommandData<String, String>(askingPromise, codec, RedisCommands.ASKING, new Object[] {}));
+                }
+                ChannelFuture future = connection.send(new CommandData<V, R>(attemptPromise, messageDecoder, codec, command, params, encodedFrame.getAndSet(null)));
+                final Timeout timeout;
+                if (isStreamed(command)) {
+                    StreamingMultiDecoder<?> decoder = (StreamingMultiDecoder<?>) command.getReplayMultiDecoder();
+                    timeout = connectionManager.newCommandTimeout(connection, new StreamTimerTask(attemptPromise, decoder, retryTimerTask), deadline);
+                    attemptPromise.addListener(new FutureListener<R>() {
+                        @Override
+                        public void operationComplete(Future<R> future) throws Exception {
+                            if (future.cause() instanceof RedisTimeoutException) {
+                                // reply has been read partially and reading could be suspended,
+                                // so connection can't be reused
+                                connection.closeAsync();
+                            }
+                        }
+                    });
+                } else {
+                    timeout = connectionManager.newCommandTimeout(connection, retryTimerTask, deadline);
+                }
                 future.addListener(new ChannelFutureListener() {
                     @Override
                     public void operationComplete(ChannelFuture future) throws Exception {
@@ -475,7 +695,14 @@ public class CommandExecutorService implements CommandExecutor {
                     }
                 });
 
-                if (readOnlyMode) {
+                if (isPipelined(command)) {
+                    attemptPromise.addListener(connectionManager.createPipelinedReleaseListener(slot, readOnlyMode, connection, timeout));
+                    if (readOnlyMode) {
+                        connectionManager.releaseRead(slot, connection);
+                    } else {
+                        connectionManager.releaseWrite(slot, connection);
+                    }
+                } else if (readOnlyMode) {
                     attemptPromise.addListener(connectionManager.createReleaseReadListener(slot, connection, timeout));
                 } else {
                     attemptPromise.addListener(connectionManager.createReleaseWriteListener(slot, connection, timeout));
@@ -486,19 +713,16 @@ public class CommandExecutorService implements CommandExecutor {
         attemptPromise.addListener(new FutureListener<R>() {
             @Override
             public void operationComplete(Future<R> future) throws Exception {
-                timeout.cancel();
+                if (connectionTimeout != null) {
+                    connectionTimeout.cancel();
+                }
                 if (future.isCancelled()) {
                     return;
                 }
 
-                if (future.cause() instanceof RedisMovedException) {
-                    if (!connectionManager.getShutdownLatch().acquire()) {
-                        return;
-                    }
-
-                    RedisMovedException ex = (RedisMovedException)future.cause();
-                    connectionManager.getTimer().newTimeout(retryTimerTask, connectionManager.getConfig().getRetryInterval(), TimeUnit.MILLISECONDS);
-                    async(readOnlyMode, ex.getSlot(), messageDecoder, codec, command, params, mainPromise, client, attempt);
+                if (future.cause() instanceof RedisRedirectException) {
+                    RedisRedirectException ex = (RedisRedirectException)future.cause();
+                    redirect(readOnlyMode, ex, messageDecoder, codec, command, params, mainPromise, attempt);
                     return;
                 }
 
@@ -507,6 +731,11 @@ public class CommandExecutorService implements CommandExecutor {
                     if (res instanceof RedisClientResult) {
                         ((RedisClientResult)res).setRedisClient(client);
                     }
+                    if (mainPromise.isCancelled()) {
+                        // caller won't read result
+                        LazyValue.releaseAll(res);
+                        return;
+                    }
                     mainPromise.setSuccess(res);
                 } else {
                     mainPromise.setFailure(future.cause());
@@ -515,4 +744,35 @@ public class CommandExecutorService implements CommandExecutor {
         });
     }
 
+    /**
+     * Repeats command on node from MOVED or ASK redirection.
+     * MOVED also triggers slots update, while ASK is followed only once.
+     * If node is unknown yet, command is repeated after retry interval.
+     */
+    private <V, R> void redirect(final boolean readOnlyMode, final RedisRedirectException ex, final MultiDecoder<Object> messageDecoder,
+                            final Codec codec, final RedisCommand<V> command, final Object[] params, final Promise<R> mainPromise, final int attempt) {
+        if (attempt == connectionManager.getConfig().getRetryAttempts()) {
+            mainPromise.setFailure(ex);
+            return;
+        }
+
+        boolean ask = ex instanceof RedisAskException;
+        if (!ask) {
+            connectionManager.refreshSlots();
+        }
+
+        int slot = connectionManager.getSlot(ex.getUrl());
+        if (slot != -1) {
+            async(readOnlyMode, slot, messageDecoder, codec, command, params, mainPromise, null, attempt + 1, ask);
+            return;
+        }
+
+        connectionManager.newTimeout(new TimerTask() {
+            @Override
+            public void run(Timeout timeout) throws Exception {
+                async(readOnlyMode, ex.getSlot(), messageDecoder, codec, command, params, mainPromise, null, attempt + 1);
+            }
+        }, connectionManager.getConfig().getRetryInterval(), TimeUnit.MILLISECONDS);
+    }
+
 }
@@ -0,0 +1,193 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.redisson.client.RedisClient;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.protocol.CommandData;
+import org.redisson.client.protocol.RedisCommand;
+import org.redisson.client.protocol.decoder.MultiDecoder;
+import org.redisson.connection.ConnectionManager;
+import org.redisson.connection.MasterSlaveEntry;
+import org.redisson.core.BatchListener;
+
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.Promise;
+
+/**
+ * Batch executor which sends commands in windows of limited size per node
+ * while commands are still being added. Amount of windows in flight is limited,
+ * so adding command blocks until one of windows has been executed.
+ * Command results aren't kept, they are passed to {@link BatchListener} if it's defined.
+ *
+ * Should not be used from netty event loop thread since it may block.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class CommandStreamingBatchExecutorService extends CommandBatchExecutorService {
+
+    private static class Window extends Entry {
+
+        int size;
+
+    }
+
+    private final AtomicInteger index = new AtomicInteger();
+
+    private final Map<MasterSlaveEntry, Window> windows = new HashMap<MasterSlaveEntry, Window>();
+
+    private final int windowSize;
+    private final Semaphore windowsInFlight;
+    private final BatchListener listener;
+
+    // one extra permit is held until batch is executed
+    private final AtomicInteger pending = new AtomicInteger(1);
+    private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+    private final Promise<List<?>> result;
+
+    private volatile boolean executed;
+
+    /**
+     * @param windowSize - amount of commands per node sent as single pipeline
+     * @param windowsInFlight - max amount of windows in flight
+     * @param listener - command results listener, could be <code>null</code>
+     */
+    public CommandStreamingBatchExecutorService(ConnectionManager connectionManager, int windowSize, int windowsInFlight, BatchListener listener) {
+        super(connectionManager);
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("windowSize should be positive");
+        }
+        if (windowsInFlight < 1) {
+            throw new IllegalArgumentException("windowsInFlight should be positive");
+        }
+        this.windowSize = windowSize;
+        this.windowsInFlight = new Semaphore(windowsInFlight);
+        this.listener = listener;
+        this.result = connectionManager.newPromise();
+    }
+
+    @Override
+    protected <V, R> void async(boolean readOnlyMode, int slot, MultiDecoder<Object> messageDecoder,
+            Codec codec, RedisCommand<V> command, Object[] params, Promise<R> mainPromise, RedisClient client, int attempt) {
+        if (executed) {
+            throw new IllegalStateException("Batch already executed!");
+        }
+        MasterSlaveEntry node = connectionManager.getEntry(slot);
+        CommandEntry commandEntry = new CommandEntry(new CommandData<V, R>(mainPromise, messageDecoder, codec, command, params), index.getAndIncrement());
+
+        Window window;
+        synchronized (windows) {
+            window = windows.get(node);
+            if (window == null) {
+                window = new Window();
+                windows.put(node, window);
+            }
+            if (!readOnlyMode) {
+                window.setReadOnlyMode(false);
+            }
+            window.getCommands().add(commandEntry);
+            window.size++;
+            if (window.size < windowSize) {
+                return;
+            }
+            windows.remove(node);
+        }
+
+        send(node, window);
+    }
+
+    private void send(MasterSlaveEntry node, final Window window) {
+        windowsInFlight.acquireUninterruptibly();
+        pending.incrementAndGet();
+
+        Promise<Void> windowPromise = connectionManager.newPromise();
+        windowPromise.addListener(new FutureListener<Void>() {
+            @Override
+            public void operationComplete(Future<Void> future) throws Exception {
+                if (!future.isSuccess()) {
+                    failure.compareAndSet(null, future.cause());
+                }
+                if (listener != null) {
+                    for (CommandEntry commandEntry : window.getCommands()) {
+                        Future<?> commandFuture = commandEntry.getCommand().getPromise();
+                        if (commandFuture.isSuccess()) {
+                            listener.onResult(commandEntry.getIndex(), commandFuture.getNow());
+                        } else {
+                            Throwable cause = commandFuture.cause();
+                            if (cause == null) {
+                                cause = future.cause();
+                            }
+                            listener.onFailure(commandEntry.getIndex(), cause);
+                        }
+                    }
+                }
+                windowsInFlight.release();
+                windowDone();
+            }
+        });
+
+        execute(window, node.getStartSlot(), windowPromise, new AtomicInteger(1), 0);
+    }
+
+    private void windowDone() {
+        if (pending.decrementAndGet() != 0) {
+            return;
+        }
+
+        Throwable cause = failure.get();
+        if (cause != null) {
+            result.tryFailure(cause);
+        } else {
+            result.trySuccess(null);
+        }
+    }
+
+    /**
+     * Sends remaining commands.
+     * Returned future is completed with <code>null</code> once all windows have been executed.
+     *
+     * @return future
+     */
+    @Override
+    public Future<List<?>> executeAsync() {
+        if (executed) {
+            throw new IllegalStateException("Batch already executed!");
+        }
+        executed = true;
+
+        Map<MasterSlaveEntry, Window> rest;
+        synchronized (windows) {
+            rest = new HashMap<MasterSlaveEntry, Window>(windows);
+            windows.clear();
+        }
+        for (Map.Entry<MasterSlaveEntry, Window> e : rest.entrySet()) {
+            send(e.getKey(), e.getValue());
+        }
+
+        windowDone();
+        return result;
+    }
+
+}
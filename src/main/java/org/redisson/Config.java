@@ -15,6 +15,8 @@
  */
 package org.redisson;
 
+import java.util.concurrent.Executor;
+
 import org.redisson.client.codec.Codec;
 import org.redisson.codec.JsonJacksonCodec;
 
@@ -48,6 +50,21 @@ public class Config {
 
     private boolean useLinuxNativeEpoll;
 
+    /**
+     * Executor used to decode replies. Replies are decoded in netty threads if not defined
+     */
+    private Executor decodeExecutor;
+
+    /**
+     * Encode commands in threads which invoke them instead of netty threads
+     */
+    private boolean encodeInCallerThread;
+
+    /**
+     * Flush commands written during the same netty event loop iteration at once
+     */
+    private boolean flushConsolidation;
+
     public Config() {
     }
 
@@ -61,6 +78,9 @@ public class Config {
 
         setThreads(oldConf.getThreads());
         setCodec(oldConf.getCodec());
+        setDecodeExecutor(oldConf.getDecodeExecutor());
+        setEncodeInCallerThread(oldConf.isEncodeInCallerThread());
+        setFlushConsolidation(oldConf.isFlushConsolidation());
         if (oldConf.getSingleServerConfig() != null) {
             setSingleServerConfig(new SingleServerConfig(oldConf.getSingleServerConfig()));
         }
@@ -246,5 +266,62 @@ public class Config {
         return useLinuxNativeEpoll;
     }
 
+    /**
+     * Executor used to decode replies by codec. Replies are decoded
+     * in netty threads if it's not defined (default).
+     * Decoding of big objects stalls other connections
+     * served by the same netty thread, so use it in that case.
+     * <p/>
+     * Replies of each connection are decoded one by one in order of receiving.
+     * Executor isn't shutdown by Redisson.
+     *
+     * @param decodeExecutor
+     * @return
+     */
+    public Config setDecodeExecutor(Executor decodeExecutor) {
+        this.decodeExecutor = decodeExecutor;
+        return this;
+    }
+    public Executor getDecodeExecutor() {
+        return decodeExecutor;
+    }
+
+    /**
+     * Encode command params by codec in threads which invoke commands
+     * instead of netty threads. Netty threads just write already encoded commands.
+     * Useful then big objects are stored, since encoding of them delays
+     * IO of other connections served by the same netty thread.
+     * <p/>
+     * Command is encoded again for each retry attempt.
+     * Turned off by default.
+     *
+     * @param encodeInCallerThread
+     * @return
+     */
+    public Config setEncodeInCallerThread(boolean encodeInCallerThread) {
+        this.encodeInCallerThread = encodeInCallerThread;
+        return this;
+    }
+    public boolean isEncodeInCallerThread() {
+        return encodeInCallerThread;
+    }
+
+    /**
+     * Commands written to connection during the same netty event loop iteration
+     * are flushed at once instead of flush per command.
+     * Reduces amount of <code>write</code> syscalls and network packets under high load.
+     * Flush is made earlier if 128 commands or 64KB are waiting for it.
+     * Turned off by default.
+     *
+     * @param flushConsolidation
+     * @return
+     */
+    public Config setFlushConsolidation(boolean flushConsolidation) {
+        this.flushConsolidation = flushConsolidation;
+        return this;
+    }
+    public boolean isFlushConsolidation() {
+        return flushConsolidation;
+    }
 
 }
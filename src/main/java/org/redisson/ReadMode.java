@@ -0,0 +1,42 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson;
+
+/**
+ * Nodes used for read operations in cluster mode.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public enum ReadMode {
+
+    /**
+     * Read from master nodes only
+     */
+    MASTER,
+
+    /**
+     * Read from slave nodes. Master is used
+     * only if partition has no available slaves.
+     */
+    SLAVE,
+
+    /**
+     * Read from both master and slave nodes
+     */
+    MASTER_SLAVE
+
+}
@@ -26,8 +26,11 @@ import java.util.concurrent.TimeUnit;
 
 import org.redisson.client.RedisConnection;
 import org.redisson.client.protocol.RedisCommands;
+import org.redisson.client.RedisClient;
 import org.redisson.connection.ConnectionManager;
+import org.redisson.connection.MasterSlaveEntry;
 import org.redisson.connection.RedisClientEntry;
+import org.redisson.connection.SubscribesConnectionEntry;
 import org.redisson.core.Node;
 import org.redisson.core.NodesGroup;
 
@@ -47,6 +50,22 @@ public class RedisNodes<N extends Node> implements NodesGroup<N> {
         return (Collection<N>) connectionManager.getClients();
     }
 
+    @Override
+    public void setWeight(N node, int weight) {
+        RedisClient client = ((RedisClientEntry) node).getClient();
+        boolean updated = false;
+        for (MasterSlaveEntry entry : connectionManager.getEntryList()) {
+            SubscribesConnectionEntry readEntry = entry.getReadEntry(client);
+            if (readEntry != null) {
+                readEntry.setWeight(weight);
+                updated = true;
+            }
+        }
+        if (!updated) {
+            throw new IllegalArgumentException("Node " + node.getAddr() + " isn't used for read operations");
+        }
+    }
+
     @Override
     public boolean pingAll() {
         List<RedisClientEntry> clients = new ArrayList<RedisClientEntry>(connectionManager.getClients());
@@ -30,6 +30,7 @@ import org.redisson.connection.ElasticacheConnectionManager;
 import org.redisson.connection.MasterSlaveConnectionManager;
 import org.redisson.connection.SentinelConnectionManager;
 import org.redisson.connection.SingleConnectionManager;
+import org.redisson.core.BatchListener;
 import org.redisson.core.ClusterNode;
 import org.redisson.core.Node;
 import org.redisson.core.NodesGroup;
@@ -592,5 +593,23 @@ public class Redisson implements RedissonClient {
         return new RedissonBatch(connectionManager);
     }
 
+    /**
+     * Return batch object which sends commands in pipeline
+     * while they are being added. Commands are sent by windows
+     * of <code>windowSize</code> per node, adding command blocks
+     * while <code>windowsInFlight</code> windows are being executed.
+     * Command results aren't kept, they are passed to <code>listener</code>.
+     * Intended for bulk loading, {@link RBatch#execute()} returns <code>null</code>.
+     *
+     * @param windowSize - amount of commands per node sent as single pipeline
+     * @param windowsInFlight - max amount of windows in flight
+     * @param listener - command results listener, could be <code>null</code>
+     * @return
+     */
+    @Override
+    public RBatch createBatch(int windowSize, int windowsInFlight, BatchListener listener) {
+        return new RedissonBatch(new CommandStreamingBatchExecutorService(connectionManager, windowSize, windowsInFlight, listener));
+    }
+
 }
 
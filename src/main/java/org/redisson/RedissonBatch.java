@@ -42,7 +42,11 @@ public class RedissonBatch implements RBatch {
     private final CommandBatchExecutorService executorService;
 
     public RedissonBatch(ConnectionManager connectionManager) {
-        this.executorService = new CommandBatchExecutorService(connectionManager);
+        this(new CommandBatchExecutorService(connectionManager));
+    }
+
+    public RedissonBatch(CommandBatchExecutorService executorService) {
+        this.executorService = executorService;
     }
 
     @Override
@@ -19,6 +19,7 @@ import java.util.Collection;
 import java.util.List;
 
 import org.redisson.client.codec.Codec;
+import org.redisson.core.BatchListener;
 import org.redisson.core.ClusterNode;
 import org.redisson.core.Node;
 import org.redisson.core.NodesGroup;
@@ -227,6 +228,23 @@ public interface RedissonClient {
      */
     RBatch createBatch();
 
+    /**
+     * Return batch object which sends commands in pipeline
+     * while they are being added. Commands are sent by windows
+     * of <code>windowSize</code> per node, adding command blocks
+     * while <code>windowsInFlight</code> windows are being executed.
+     * Command results aren't kept, they are passed to <code>listener</code>.
+     * Intended for bulk loading, {@link RBatch#execute()} returns <code>null</code>.
+     * <code>listener</code> is invoked on netty event loop thread and must not
+     * add commands to the same batch.
+     *
+     * @param windowSize - amount of commands per node sent as single pipeline
+     * @param windowsInFlight - max amount of windows in flight
+     * @param listener - command results listener, could be <code>null</code>
+     * @return
+     */
+    RBatch createBatch(int windowSize, int windowsInFlight, BatchListener listener);
+
     /**
      * Returns keys operations.
      * Each of Redis/Redisson object associated with own key
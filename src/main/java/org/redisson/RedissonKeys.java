@@ -26,6 +26,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import org.redisson.client.codec.StringCodec;
 import org.redisson.client.protocol.RedisCommands;
 import org.redisson.client.protocol.decoder.ListScanResult;
+import org.redisson.connection.MasterSlaveEntry;
 import org.redisson.core.RKeys;
 import org.redisson.misc.CompositeIterable;
 
@@ -43,7 +44,8 @@ public class RedissonKeys implements RKeys {
     @Override
     public Iterable<String> getKeysByPattern(final String pattern) {
         List<Iterable<String>> iterables = new ArrayList<Iterable<String>>();
-        for (final Integer slot : commandExecutor.getConnectionManager().getEntries().keySet()) {
+        for (MasterSlaveEntry entry : commandExecutor.getConnectionManager().getEntryList()) {
+            final int slot = entry.getStartSlot();
             Iterable<String> iterable = new Iterable<String>() {
                 @Override
                 public Iterator<String> iterator() {
@@ -58,7 +60,8 @@ public class RedissonKeys implements RKeys {
     @Override
     public Iterable<String> getKeys() {
         List<Iterable<String>> iterables = new ArrayList<Iterable<String>>();
-        for (final Integer slot : commandExecutor.getConnectionManager().getEntries().keySet()) {
+        for (MasterSlaveEntry entry : commandExecutor.getConnectionManager().getEntryList()) {
+            final int slot = entry.getStartSlot();
             Iterable<String> iterable = new Iterable<String>() {
                 @Override
                 public Iterator<String> iterator() {
@@ -40,6 +40,7 @@ import org.redisson.client.protocol.convertor.BooleanNumberReplayConvertor;
 import org.redisson.client.protocol.convertor.BooleanReplayConvertor;
 import org.redisson.client.protocol.convertor.Convertor;
 import org.redisson.client.protocol.convertor.IntegerReplayConvertor;
+import org.redisson.connection.decoder.StreamingReplyIterator;
 import org.redisson.core.RList;
 
 import io.netty.util.concurrent.Future;
@@ -101,6 +102,14 @@ public class RedissonList<V> extends RedissonExpirable implements RList<V> {
         return commandExecutor.readAsync(getName(), codec, LRANGE, getName(), 0, -1);
     }
 
+    @Override
+    public Iterator<V> streamIterator(int bufferSize) {
+        StreamingReplyIterator<V> iterator = new StreamingReplyIterator<V>(bufferSize);
+        Future<Integer> f = commandExecutor.readAsync(getName(), codec, new RedisCommand<Integer>("LRANGE", iterator), getName(), 0, -1);
+        iterator.setFuture(f);
+        return iterator;
+    }
+
     @Override
     public <T> T[] toArray(T[] a) {
         List<V> list = readAll();
@@ -36,7 +36,12 @@ import org.redisson.client.protocol.RedisCommands;
 import org.redisson.client.protocol.convertor.BooleanReplayConvertor;
 import org.redisson.client.protocol.convertor.LongReplayConvertor;
 import org.redisson.client.protocol.convertor.NumberConvertor;
+import org.redisson.client.protocol.decoder.LazyMapValueReplayDecoder;
+import org.redisson.client.protocol.decoder.LazyValue;
 import org.redisson.client.protocol.decoder.MapScanResult;
+import org.redisson.client.protocol.decoder.MapScanResultReplayDecoder;
+import org.redisson.client.protocol.decoder.NestedMultiDecoder;
+import org.redisson.connection.decoder.StreamingReplyIterator;
 import org.redisson.core.Predicate;
 import org.redisson.core.RMap;
 
@@ -57,6 +62,7 @@ public class RedissonMap<K, V> extends RedissonExpirable implements RMap<K, V> {
     private static final RedisCommand<Object> EVAL_REMOVE = new RedisCommand<Object>("EVAL", 4, ValueType.MAP_KEY, ValueType.MAP_VALUE);
     private static final RedisCommand<Object> EVAL_REPLACE = new RedisCommand<Object>("EVAL", 4, ValueType.MAP, ValueType.MAP_VALUE);
     private static final RedisCommand<Boolean> EVAL_REPLACE_VALUE = new RedisCommand<Boolean>("EVAL", new BooleanReplayConvertor(), 4, Arrays.asList(ValueType.MAP_KEY, ValueType.MAP_VALUE, ValueType.MAP_VALUE));
+    private static final RedisCommand<Boolean> EVAL_CONTAINS_VALUE = new RedisCommand<Boolean>("EVAL", new BooleanReplayConvertor(), 4);
     private static final RedisCommand<Long> EVAL_REMOVE_VALUE = new RedisCommand<Long>("EVAL", new LongReplayConvertor(), 4, ValueType.MAP);
     private static final RedisCommand<Object> EVAL_PUT = EVAL_REPLACE;
 
@@ -100,7 +106,7 @@ public class RedissonMap<K, V> extends RedissonExpirable implements RMap<K, V> {
 
     @Override
     public Future<Boolean> containsValueAsync(Object value) {
-        return commandExecutor.evalReadAsync(getName(), codec, new RedisCommand<Boolean>("EVAL", new BooleanReplayConvertor(), 4),
+        return commandExecutor.evalReadAsync(getName(), codec, EVAL_CONTAINS_VALUE,
                 "local s = redis.call('hvals', KEYS[1]);" +
                         "for i = 0, table.getn(s), 1 do "
                             + "if ARGV[1] == s[i] then "
@@ -171,6 +177,22 @@ public class RedissonMap<K, V> extends RedissonExpirable implements RMap<K, V> {
         return commandExecutor.readAsync(getName(), codec, RedisCommands.HKEYS, getName());
     }
 
+    @Override
+    public Iterator<K> keyStreamIterator(int bufferSize) {
+        StreamingReplyIterator<K> iterator = new StreamingReplyIterator<K>(bufferSize);
+        Future<Integer> f = commandExecutor.readAsync(getName(), codec, new RedisCommand<Integer>("HKEYS", iterator, ValueType.MAP_KEY), getName());
+        iterator.setFuture(f);
+        return iterator;
+    }
+
+    @Override
+    public Iterator<V> valueStreamIterator(int bufferSize) {
+        StreamingReplyIterator<V> iterator = new StreamingReplyIterator<V>(bufferSize);
+        Future<Integer> f = commandExecutor.readAsync(getName(), codec, new RedisCommand<Integer>("HVALS", iterator, ValueType.MAP_VALUE), getName());
+        iterator.setFuture(f);
+        return iterator;
+    }
+
     @Override
     public Collection<V> values() {
         return get(valuesAsync());
@@ -339,13 +361,31 @@ public class RedissonMap<K, V> extends RedissonExpirable implements RMap<K, V> {
 
     @Override
     public Map<K, V> filterKeys(Predicate<K> predicate) {
+        // values are decoded only for keys accepted by predicate
+        RedisCommand<MapScanResult<Object, LazyValue<Object>>> command = new RedisCommand<MapScanResult<Object, LazyValue<Object>>>("HSCAN",
+                new NestedMultiDecoder(new LazyMapValueReplayDecoder(codec.getMapValueDecoder()), new MapScanResultReplayDecoder()), ValueType.MAP);
+
         Map<K, V> result = new HashMap<K, V>();
-        for (Iterator<Map.Entry<K, V>> iterator = iterator(); iterator.hasNext();) {
-            Map.Entry<K, V> entry = iterator.next();
-            if (predicate.apply(entry.getKey())) {
-                result.put(entry.getKey(), entry.getValue());
+        RedisClient client = null;
+        long pos = 0;
+        do {
+            MapScanResult<Object, LazyValue<Object>> res = commandExecutor.read(client, getName(), codec, command, getName(), pos);
+            client = res.getRedisClient();
+            pos = res.getPos();
+            try {
+                for (Map.Entry<Object, LazyValue<Object>> entry : res.getMap().entrySet()) {
+                    K key = (K) entry.getKey();
+                    if (predicate.apply(key)) {
+                        result.put(key, (V) entry.getValue().get());
+                    }
+                }
+            } finally {
+                // releases values which haven't been decoded
+                for (LazyValue<Object> value : res.getMap().values()) {
+                    value.release();
+                }
             }
-        }
+        } while (pos != 0);
         return result;
     }
 
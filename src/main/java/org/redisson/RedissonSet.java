@@ -28,6 +28,7 @@ import org.redisson.client.protocol.RedisCommand;
 import org.redisson.client.protocol.RedisCommands;
 import org.redisson.client.protocol.convertor.BooleanReplayConvertor;
 import org.redisson.client.protocol.decoder.ListScanResult;
+import org.redisson.connection.decoder.StreamingReplyIterator;
 import org.redisson.core.RSet;
 
 import io.netty.util.concurrent.Future;
@@ -138,6 +139,14 @@ public class RedissonSet<V> extends RedissonExpirable implements RSet<V> {
         return commandExecutor.readAsync(getName(), codec, RedisCommands.SMEMBERS, getName());
     }
 
+    @Override
+    public Iterator<V> streamIterator(int bufferSize) {
+        StreamingReplyIterator<V> iterator = new StreamingReplyIterator<V>(bufferSize);
+        Future<Integer> f = commandExecutor.readAsync(getName(), codec, new RedisCommand<Integer>("SMEMBERS", iterator), getName());
+        iterator.setFuture(f);
+        return iterator;
+    }
+
     @Override
     public Object[] toArray() {
         List<Object> res = (List<Object>) get(readAllAsync());
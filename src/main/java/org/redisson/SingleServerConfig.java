@@ -33,11 +33,21 @@ public class SingleServerConfig extends BaseConfig<SingleServerConfig> {
      */
     private int subscriptionConnectionPoolSize = 25;
 
+    /**
+     * Minimum idle subscription connection amount
+     */
+    private int subscriptionConnectionMinimumIdleSize = 1;
+
     /**
      * Redis connection pool size
      */
     private int connectionPoolSize = 100;
 
+    /**
+     * Minimum idle Redis connection amount
+     */
+    private int connectionMinimumIdleSize = 5;
+
         
     /**
      * Should the server address be monitored for changes in DNS? Useful for 
@@ -61,6 +71,8 @@ public class SingleServerConfig extends BaseConfig<SingleServerConfig> {
         setAddress(config.getAddress());
         setConnectionPoolSize(config.getConnectionPoolSize());
         setSubscriptionConnectionPoolSize(config.getSubscriptionConnectionPoolSize());
+        setConnectionMinimumIdleSize(config.getConnectionMinimumIdleSize());
+        setSubscriptionConnectionMinimumIdleSize(config.getSubscriptionConnectionMinimumIdleSize());
         setDnsMonitoring(config.isDnsMonitoring());
         setDnsMonitoringInterval(config.getDnsMonitoringInterval());
     }
@@ -94,6 +106,37 @@ public class SingleServerConfig extends BaseConfig<SingleServerConfig> {
         return subscriptionConnectionPoolSize;
     }
 
+    /**
+     * Minimum idle Redis connection amount.
+     * Connections are created at startup and topped up in background.
+     * Default is 5
+     *
+     * @param connectionMinimumIdleSize
+     * @return
+     */
+    public SingleServerConfig setConnectionMinimumIdleSize(int connectionMinimumIdleSize) {
+        this.connectionMinimumIdleSize = connectionMinimumIdleSize;
+        return this;
+    }
+    public int getConnectionMinimumIdleSize() {
+        return connectionMinimumIdleSize;
+    }
+
+    /**
+     * Minimum idle subscription connection amount.
+     * Default is 1
+     *
+     * @param subscriptionConnectionMinimumIdleSize
+     * @return
+     */
+    public SingleServerConfig setSubscriptionConnectionMinimumIdleSize(int subscriptionConnectionMinimumIdleSize) {
+        this.subscriptionConnectionMinimumIdleSize = subscriptionConnectionMinimumIdleSize;
+        return this;
+    }
+    public int getSubscriptionConnectionMinimumIdleSize() {
+        return subscriptionConnectionMinimumIdleSize;
+    }
+
     /**
      * Set server address. Use follow format -- host:port
      *
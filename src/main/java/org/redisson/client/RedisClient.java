@@ -16,12 +16,14 @@
 package org.redisson.client;
 
 import java.net.InetSocketAddress;
+import java.util.concurrent.Executor;
 
 import org.redisson.client.handler.CommandDecoder;
 import org.redisson.client.handler.CommandEncoder;
 import org.redisson.client.handler.CommandsListEncoder;
 import org.redisson.client.handler.CommandsQueue;
 import org.redisson.client.handler.ConnectionWatchdog;
+import org.redisson.client.handler.FlushConsolidationHandler;
 
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
@@ -53,6 +55,11 @@ public class RedisClient {
     }
 
     public RedisClient(EventLoopGroup group, Class<? extends SocketChannel> socketChannelClass, String host, int port, int timeout) {
+        this(group, null, false, socketChannelClass, host, port, timeout);
+    }
+
+    public RedisClient(EventLoopGroup group, final Executor decodeExecutor, final boolean flushConsolidation,
+                Class<? extends SocketChannel> socketChannelClass, String host, int port, int timeout) {
         addr = new InetSocketAddress(host, port);
         bootstrap = new Bootstrap().channel(socketChannelClass).group(group).remoteAddress(addr);
         bootstrap.handler(new ChannelInitializer<Channel>() {
@@ -62,7 +69,10 @@ public class RedisClient {
                                         new CommandEncoder(),
                                         new CommandsListEncoder(),
                                         new CommandsQueue(),
-                                        new CommandDecoder());
+                                        new CommandDecoder(decodeExecutor));
+                if (flushConsolidation) {
+                    ch.pipeline().addFirst(new FlushConsolidationHandler());
+                }
             }
         });
 
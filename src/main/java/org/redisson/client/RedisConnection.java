@@ -40,6 +40,7 @@ public class RedisConnection implements RedisCommands {
     volatile Channel channel;
     private ReconnectListener reconnectListener;
     private int failAttempts;
+    private volatile long lastUsageTime;
 
     public RedisConnection(RedisClient redisClient, Channel channel) {
         super();
@@ -68,6 +69,14 @@ public class RedisConnection implements RedisCommands {
         return failAttempts;
     }
 
+    public long getLastUsageTime() {
+        return lastUsageTime;
+    }
+
+    public void setLastUsageTime(long lastUsageTime) {
+        this.lastUsageTime = lastUsageTime;
+    }
+
     public void updateChannel(Channel channel) {
         this.channel = channel;
         channel.attr(CONNECTION).set(this);
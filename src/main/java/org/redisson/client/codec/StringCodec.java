@@ -15,11 +15,10 @@
  */
 package org.redisson.client.codec;
 
-import java.io.IOException;
-
 import org.redisson.client.handler.State;
 import org.redisson.client.protocol.Decoder;
 import org.redisson.client.protocol.Encoder;
+import org.redisson.client.protocol.StringParamsEncoder;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.util.CharsetUtil;
@@ -28,12 +27,7 @@ public class StringCodec implements Codec {
 
     public static final StringCodec INSTANCE = new StringCodec();
 
-    private final Encoder encoder = new Encoder() {
-        @Override
-        public byte[] encode(Object in) throws IOException {
-            return in.toString().getBytes("UTF-8");
-        }
-    };
+    private final Encoder encoder = new StringParamsEncoder();
 
     private final Decoder<Object> decoder = new Decoder<Object>() {
         @Override
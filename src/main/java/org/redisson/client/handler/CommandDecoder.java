@@ -16,12 +16,15 @@
 package org.redisson.client.handler;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
+import org.redisson.client.RedisAskException;
 import org.redisson.client.RedisException;
 import org.redisson.client.RedisMovedException;
 import org.redisson.client.RedisPubSubConnection;
@@ -30,18 +33,21 @@ import org.redisson.client.protocol.CommandsData;
 import org.redisson.client.protocol.Decoder;
 import org.redisson.client.protocol.QueueCommand;
 import org.redisson.client.protocol.RedisCommand.ValueType;
+import org.redisson.client.protocol.decoder.LazyValue;
 import org.redisson.client.protocol.decoder.MultiDecoder;
+import org.redisson.client.protocol.decoder.StreamingMultiDecoder;
 import org.redisson.client.protocol.pubsub.Message;
 import org.redisson.client.protocol.pubsub.PubSubMessage;
 import org.redisson.client.protocol.pubsub.PubSubPatternMessage;
 import org.redisson.client.protocol.pubsub.PubSubStatusMessage;
+import org.redisson.misc.SerialExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.ReplayingDecoder;
+import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.util.CharsetUtil;
 import io.netty.util.concurrent.Promise;
 import io.netty.util.internal.PlatformDependent;
@@ -54,7 +60,7 @@ import io.netty.util.internal.PlatformDependent;
  * @author Nikita Koksharov
  *
  */
-public class CommandDecoder extends ReplayingDecoder<State> {
+public class CommandDecoder extends ByteToMessageDecoder {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
 
@@ -62,159 +68,433 @@ public class CommandDecoder extends ReplayingDecoder<State> {
     public static final char LF = '\n';
     private static final char ZERO = '0';
 
+    private static final String[] STATUSES = {"OK", "QUEUED", "PONG"};
+    private static final byte[][] STATUS_BYTES = new byte[STATUSES.length][];
+    static {
+        for (int i = 0; i < STATUSES.length; i++) {
+            STATUS_BYTES[i] = STATUSES[i].getBytes(CharsetUtil.US_ASCII);
+        }
+    }
+
+    private static final byte[] MOVED_PREFIX = "MOVED ".getBytes(CharsetUtil.US_ASCII);
+    private static final byte[] ASK_PREFIX = "ASK ".getBytes(CharsetUtil.US_ASCII);
+
+    private static final Decoder<Object> STRING_DECODER = new Decoder<Object>() {
+        @Override
+        public Object decode(ByteBuf buf, State state) {
+            return buf.toString(CharsetUtil.UTF_8);
+        }
+    };
+
     // It is not needed to use concurrent map because responses are coming consecutive
     private final Map<String, MultiDecoder<Object>> messageDecoders = new HashMap<String, MultiDecoder<Object>>();
     private final Map<String, CommandData<Object, Object>> channels = PlatformDependent.newConcurrentHashMap();
 
+    // state of reply which is decoded at the moment, kept between decode invocations
+    private State state;
+
+    // replies are decoded by this executor if it's defined, one by one in order of receiving
+    private final Executor decodeExecutor;
+    private final CommandDecoder workerDecoder;
+
+    // progress of scanning replies which are passed to decode executor
+    private final Deque<Long> frameLevels = new ArrayDeque<Long>();
+    private int frameOffset;
+    private int frameReplies;
+
+    public CommandDecoder() {
+        this(null);
+    }
+
+    /**
+     * @param decodeExecutor executor used to decode replies,
+     *                       replies are decoded in event loop if <code>null</code>
+     */
+    public CommandDecoder(Executor decodeExecutor) {
+        if (decodeExecutor != null) {
+            this.decodeExecutor = new SerialExecutor(decodeExecutor);
+            this.workerDecoder = new CommandDecoder();
+        } else {
+            this.decodeExecutor = null;
+            this.workerDecoder = null;
+        }
+    }
+
     public void addChannel(String channel, CommandData<Object, Object> data) {
         channels.put(channel, data);
     }
 
     @Override
-    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
-        QueueCommand data = ctx.channel().attr(CommandsQueue.REPLAY).get();
-
-        Decoder<Object> currentDecoder = null;
-        if (data == null) {
-            currentDecoder = new Decoder<Object>() {
-                @Override
-                public Object decode(ByteBuf buf, State state) {
-                    return buf.toString(CharsetUtil.UTF_8);
-                }
-            };
+    public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+        if (!ctx.channel().config().isAutoRead()) {
+            // reading has been suspended by reply stream consumer,
+            // so skip read request which is made by super class if nothing has been decoded
+            discardSomeReadBytes();
+            ctx.fireChannelReadComplete();
+            return;
         }
+        super.channelReadComplete(ctx);
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+        CommandsQueue commandsQueue = ctx.pipeline().get(CommandsQueue.class);
+        QueueCommand data = commandsQueue.peek();
 
         if (log.isTraceEnabled()) {
             log.trace("channel: {} message: {}", ctx.channel(), in.toString(0, in.writerIndex(), CharsetUtil.UTF_8));
         }
 
-        if (state() == null) {
-            state(new State());
+        if (decodeExecutor != null && isOffloadable(data)) {
+            if (!frame(in, data)) {
+                return;
+            }
+
+            final ByteBuf reply = in.readSlice(frameOffset).retain();
+            frameOffset = 0;
+            frameReplies = 0;
+            commandsQueue.commandDone();
+
+            decodeExecutor.execute(new ReplyDecodeTask(workerDecoder, reply, data, ctx.channel()));
+            return;
         }
-        state().setDecoderState(null);
 
+        if (state == null) {
+            state = new State();
+        }
+
+        if (decodeCommand(in, data, ctx.channel())) {
+            if (data != null) {
+                commandsQueue.commandDone();
+            }
+            state = null;
+        }
+    }
+
+    /**
+     * Decodes reply of queued command.
+     *
+     * @return <code>true</code> if reply has been fully decoded
+     */
+    private boolean decodeCommand(ByteBuf in, QueueCommand data, Channel channel) throws IOException {
         if (data == null) {
-              decode(in, null, null, ctx.channel(), currentDecoder);
-        } else if (data instanceof CommandData) {
+            return decode(in, null, channel);
+        }
+
+        if (data instanceof CommandData) {
             CommandData<Object, Object> cmd = (CommandData<Object, Object>)data;
             try {
-//                if (state().getSize() > 0) {
-//                    decodeMulti(in, cmd, null, ctx.channel(), currentDecoder, state().getSize(), state().getRespParts());
-//                } else {
-                    decode(in, cmd, null, ctx.channel(), currentDecoder);
-//                }
+                return decode(in, cmd, channel);
             } catch (IOException e) {
                 cmd.getPromise().setFailure(e);
+                return true;
             }
-        } else if (data instanceof CommandsData) {
-            CommandsData commands = (CommandsData)data;
-
-            int i = state().getIndex();
-
-            while (in.writerIndex() > in.readerIndex()) {
-                CommandData<Object, Object> cmd = null;
-                try {
-                    checkpoint();
-                    state().setIndex(i);
-                    cmd = (CommandData<Object, Object>) commands.getCommands().get(i);
-                    decode(in, cmd, null, ctx.channel(), currentDecoder);
-                    i++;
-                } catch (IOException e) {
-                    cmd.getPromise().setFailure(e);
+        }
+
+        CommandsData commands = (CommandsData)data;
+
+        int i = state.getIndex();
+        while (i < commands.getCommands().size() && in.isReadable()) {
+            CommandData<Object, Object> cmd = (CommandData<Object, Object>) commands.getCommands().get(i);
+            try {
+                if (!decode(in, cmd, channel)) {
+                    break;
                 }
+            } catch (IOException e) {
+                cmd.getPromise().setFailure(e);
+                state.getLevels().clear();
             }
+            i++;
+            state.setIndex(i);
+        }
 
-            if (i == commands.getCommands().size()) {
-                Promise<Void> promise = commands.getPromise();
-                if (!promise.trySuccess(null)) {
-                    log.warn("response has been skipped due to timeout! channel: {}, command: {}", ctx.channel(), data);
+        if (i == commands.getCommands().size()) {
+            Promise<Void> promise = commands.getPromise();
+            if (!promise.trySuccess(null)) {
+                log.warn("response has been skipped due to timeout! channel: {}, command: {}", channel, data);
+                // results of batch commands won't be passed to caller
+                for (CommandData<?, ?> cmd : commands.getCommands()) {
+                    if (cmd.getPromise().isSuccess()) {
+                        LazyValue.releaseAll(cmd.getPromise().getNow());
+                    }
                 }
+            }
+            return true;
+        }
+        return false;
+    }
 
-                ctx.pipeline().get(CommandsQueue.class).sendNextCommand(ctx);
+    private boolean isOffloadable(QueueCommand data) {
+        if (data instanceof CommandData) {
+            // elements of streamed reply are consumed while reply is received
+            return !(((CommandData<?, ?>) data).getCommand().getReplayMultiDecoder() instanceof StreamingMultiDecoder);
+        }
+        return data instanceof CommandsData;
+    }
 
-                state(null);
-            } else {
-                checkpoint();
-                state().setIndex(i);
-            }
-            return;
+    /**
+     * Scans replies of queued command without decoding them.
+     * Scanned part of buffer isn't consumed, progress is kept in <code>frameOffset</code>
+     * relative to reader index.
+     *
+     * @return <code>true</code> if all replies have been received
+     */
+    private boolean frame(ByteBuf in, QueueCommand data) throws IOException {
+        int replies = 1;
+        if (data instanceof CommandsData) {
+            replies = ((CommandsData) data).getCommands().size();
         }
 
-        ctx.pipeline().get(CommandsQueue.class).sendNextCommand(ctx);
+        while (true) {
+            int start = in.readerIndex() + frameOffset;
+            if (start >= in.writerIndex()) {
+                return false;
+            }
+            int lf = in.indexOf(start, in.writerIndex(), (byte) LF);
+            if (lf == -1) {
+                return false;
+            }
+            if (lf == start || in.getByte(lf - 1) != CR) {
+                throw new IOException("Improper line ending at index: " + lf);
+            }
 
-        state(null);
+            int code = in.getByte(start);
+            int next = lf + 1;
+            if (code == '$') {
+                long size = readLong(in, start + 1, lf - 1);
+                if (size >= 0) {
+                    next += size + 2;
+                    if (next > in.writerIndex()) {
+                        return false;
+                    }
+                }
+            } else if (code == '*') {
+                long size = readLong(in, start + 1, lf - 1);
+                if (size > 0) {
+                    frameOffset = next - in.readerIndex();
+                    frameLevels.push(size);
+                    continue;
+                }
+            }
+            frameOffset = next - in.readerIndex();
+
+            // element has been received, complete multi-bulk replies containing it
+            while (true) {
+                if (frameLevels.isEmpty()) {
+                    frameReplies++;
+                    if (frameReplies == replies) {
+                        return true;
+                    }
+                    break;
+                }
+                long remains = frameLevels.pop() - 1;
+                if (remains > 0) {
+                    frameLevels.push(remains);
+                    break;
+                }
+            }
+        }
     }
 
-    private void decode(ByteBuf in, CommandData<Object, Object> data, List<Object> parts, Channel channel, Decoder<Object> currentDecoder) throws IOException {
-        int code = in.readByte();
-        if (code == '+') {
-            String result = in.readBytes(in.bytesBefore((byte) '\r')).toString(CharsetUtil.UTF_8);
-            in.skipBytes(2);
-
-            handleResult(data, parts, result, false, channel);
-        } else if (code == '-') {
-            String error = in.readBytes(in.bytesBefore((byte) '\r')).toString(CharsetUtil.UTF_8);
-            in.skipBytes(2);
-
-            if (error.startsWith("MOVED")) {
-                String[] errorParts = error.split(" ");
-                int slot = Integer.valueOf(errorParts[1]);
-                data.getPromise().setFailure(new RedisMovedException(slot));
-            } else if (error.startsWith("(error) ASK")) {
-                String[] errorParts = error.split(" ");
-                int slot = Integer.valueOf(errorParts[2]);
-                data.getPromise().setFailure(new RedisMovedException(slot));
-            } else {
-                data.getPromise().setFailure(new RedisException(error + ". channel: " + channel + " command: " + data));
-            }
-        } else if (code == ':') {
-            String status = in.readBytes(in.bytesBefore((byte) '\r')).toString(CharsetUtil.UTF_8);
-            in.skipBytes(2);
-            Object result = Long.valueOf(status);
-            handleResult(data, parts, result, false, channel);
-        } else if (code == '$') {
-            ByteBuf buf = readBytes(in);
-            Object result = null;
-            if (buf != null) {
-                result = decoder(data, parts, currentDecoder).decode(buf, state());
-            }
-            handleResult(data, parts, result, false, channel);
-        } else if (code == '*') {
-            long size = readLong(in);
-//            state().setSize(size);
-
-            List<Object> respParts = new ArrayList<Object>();
-//            state().setRespParts(respParts);
-
-            decodeMulti(in, data, parts, channel, currentDecoder, size, respParts);
-        } else {
-            throw new IllegalStateException("Can't decode replay " + (char)code);
+    /**
+     * Decodes fully received reply outside of event loop.
+     */
+    private static class ReplyDecodeTask implements Runnable {
+
+        private final CommandDecoder decoder;
+        private final ByteBuf reply;
+        private final QueueCommand data;
+        private final Channel channel;
+
+        ReplyDecodeTask(CommandDecoder decoder, ByteBuf reply, QueueCommand data, Channel channel) {
+            this.decoder = decoder;
+            this.reply = reply;
+            this.data = data;
+            this.channel = channel;
+        }
+
+        @Override
+        public void run() {
+            try {
+                decoder.state = new State();
+                decoder.decodeCommand(reply, data, channel);
+            } catch (Exception e) {
+                decoder.log.error("Unable to decode reply. channel: " + channel + " command: " + data, e);
+                fail(e);
+            } finally {
+                decoder.state = null;
+                reply.release();
+            }
+        }
+
+        private void fail(Exception cause) {
+            if (data instanceof CommandData) {
+                ((CommandData<?, ?>) data).getPromise().tryFailure(cause);
+                return;
+            }
+
+            CommandsData commands = (CommandsData) data;
+            for (CommandData<?, ?> command : commands.getCommands()) {
+                command.getPromise().tryFailure(cause);
+            }
+            commands.getPromise().tryFailure(cause);
         }
+
     }
 
-    private void decodeMulti(ByteBuf in, CommandData<Object, Object> data, List<Object> parts,
-            Channel channel, Decoder<Object> currentDecoder, long size, List<Object> respParts)
-                    throws IOException {
-        for (int i = respParts.size(); i < size; i++) {
-            decode(in, data, respParts, channel, currentDecoder);
+    /**
+     * Decodes reply elements available in buffer.
+     * Progress of multi-bulk reply is kept in <code>state</code>,
+     * so already received elements are not parsed again then next part of reply arrives.
+     * Element is consumed from buffer only if it has been fully received.
+     *
+     * @return <code>true</code> if reply has been fully decoded
+     */
+    private boolean decode(ByteBuf in, CommandData<Object, Object> data, Channel channel) throws IOException {
+        if (state.getLevels().isEmpty()) {
+            state.setDecoderState(null);
         }
 
-        MultiDecoder<Object> decoder = messageDecoder(data, respParts, channel);
-        if (decoder == null) {
-            return;
+        while (in.isReadable()) {
+            StateLevel level = state.getLastLevel();
+            List<Object> parts = null;
+            if (level != null) {
+                parts = level.getParts();
+            }
+
+            int lineEnd = lineEnd(in);
+            if (lineEnd == -1) {
+                return false;
+            }
+
+            int start = in.readerIndex();
+            int code = in.getByte(start);
+            if (code == '+') {
+                String result = status(in, start + 1, lineEnd);
+                in.readerIndex(lineEnd + 2);
+
+                handleResult(data, parts, result, false, channel);
+            } else if (code == '-') {
+                in.readerIndex(lineEnd + 2);
+
+                if (startsWith(in, start + 1, lineEnd, MOVED_PREFIX)) {
+                    int slotStart = start + 1 + MOVED_PREFIX.length;
+                    int slot = readSlot(in, slotStart, lineEnd);
+                    String url = readUrl(in, slotStart, lineEnd);
+                    data.getPromise().setFailure(new RedisMovedException(slot, url));
+                } else if (startsWith(in, start + 1, lineEnd, ASK_PREFIX)) {
+                    int slotStart = start + 1 + ASK_PREFIX.length;
+                    int slot = readSlot(in, slotStart, lineEnd);
+                    String url = readUrl(in, slotStart, lineEnd);
+                    data.getPromise().setFailure(new RedisAskException(slot, url));
+                } else {
+                    String error = in.toString(start + 1, lineEnd - start - 1, CharsetUtil.UTF_8);
+                    data.getPromise().setFailure(new RedisException(error + ". channel: " + channel + " command: " + data));
+                }
+            } else if (code == ':') {
+                Object result = readLong(in, start + 1, lineEnd);
+                in.readerIndex(lineEnd + 2);
+
+                handleResult(data, parts, result, false, channel);
+            } else if (code == '$') {
+                long size = readLong(in, start + 1, lineEnd);
+                if (size > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException(
+                            "Java only supports arrays up to " + Integer.MAX_VALUE + " in size");
+                }
+                Object result = null;
+                if (size == -1) {
+                    in.readerIndex(lineEnd + 2);
+                } else {
+                    int bufStart = lineEnd + 2;
+                    int bufEnd = bufStart + (int) size;
+                    if (in.writerIndex() < bufEnd + 2) {
+                        return false;
+                    }
+                    if (in.getByte(bufEnd) != CR || in.getByte(bufEnd + 1) != LF) {
+                        throw new IOException("Improper line ending: " + in.getByte(bufEnd) + ", " + in.getByte(bufEnd + 1));
+                    }
+                    in.readerIndex(bufEnd + 2);
+
+                    ByteBuf buf = in.slice(bufStart, (int) size);
+                    result = decoder(data, parts).decode(buf, state);
+                }
+                handleResult(data, parts, result, false, channel);
+            } else if (code == '*') {
+                long size = readLong(in, start + 1, lineEnd);
+                in.readerIndex(lineEnd + 2);
+
+                state.addLevel(new StateLevel(size));
+            } else {
+                throw new IllegalStateException("Can't decode replay " + (char)code);
+            }
+
+            if (code != '*' && level == null) {
+                return true;
+            }
+            if (code != '*') {
+                level.incIndex();
+            }
+
+            if (decodeMulti(data, channel)) {
+                return true;
+            }
         }
+        return false;
+    }
 
-        Object result = decoder.decode(respParts, state());
+    /**
+     * Completes all multi-bulk replies which have received all their elements.
+     *
+     * @return <code>true</code> if top-level reply has been completed
+     */
+    private boolean decodeMulti(CommandData<Object, Object> data, Channel channel) {
+        while (true) {
+            StateLevel level = state.getLastLevel();
+            if (!level.isDone()) {
+                return false;
+            }
+
+            state.removeLastLevel();
+            StateLevel parent = state.getLastLevel();
 
-        if (result instanceof Message) {
-            handleMultiResult(data, null, channel, result);
-            // has next messages?
-            if (in.writerIndex() > in.readerIndex()) {
-                decode(in, data, null, channel, currentDecoder);
+            List<Object> respParts = level.getParts();
+            MultiDecoder<Object> decoder = messageDecoder(data, respParts, channel);
+            if (decoder != null) {
+                Object result = decoder.decode(respParts, state);
+
+                if (result instanceof Message) {
+                    handleMultiResult(data, null, channel, result);
+                } else {
+                    List<Object> parts = null;
+                    if (parent != null) {
+                        parts = parent.getParts();
+                    }
+                    handleMultiResult(data, parts, channel, result);
+                }
             }
-        } else {
-            handleMultiResult(data, parts, channel, result);
+
+            if (parent == null) {
+                return true;
+            }
+            parent.incIndex();
+        }
+    }
+
+    /**
+     * Searches for the end of line started at reader index.
+     *
+     * @return index of CR byte or <code>-1</code> if line is not fully received
+     */
+    private int lineEnd(ByteBuf in) throws IOException {
+        int lf = in.indexOf(in.readerIndex(), in.writerIndex(), (byte) LF);
+        if (lf == -1) {
+            return -1;
         }
+        if (lf == in.readerIndex() || in.getByte(lf - 1) != CR) {
+            throw new IOException("Improper line ending at index: " + lf);
+        }
+        return lf - 1;
     }
 
     private void handleMultiResult(CommandData<Object, Object> data, List<Object> parts,
@@ -255,10 +535,17 @@ public class CommandDecoder extends ReplayingDecoder<State> {
             }
         }
         if (parts != null) {
+            if (data != null && state.getLevels().size() == 1
+                    && data.getCommand().getReplayMultiDecoder() instanceof StreamingMultiDecoder) {
+                StreamingMultiDecoder<?> decoder = (StreamingMultiDecoder<?>) data.getCommand().getReplayMultiDecoder();
+                decoder.onElement(result, state, channel);
+                return;
+            }
             parts.add(result);
         } else {
             if (!data.getPromise().trySuccess(result)) {
                 log.warn("response has been skipped due to timeout! channel: {}, command: {}, result: {}", channel, data, result);
+                LazyValue.releaseAll(result);
             }
         }
     }
@@ -284,7 +571,7 @@ public class CommandDecoder extends ReplayingDecoder<State> {
         return data.getCommand().getReplayMultiDecoder();
     }
 
-    private Decoder<Object> decoder(CommandData<Object, Object> data, List<Object> parts, Decoder<Object> currentDecoder) {
+    private Decoder<Object> decoder(CommandData<Object, Object> data, List<Object> parts) {
         if (data == null) {
             if (parts.size() == 2 && parts.get(0).equals("message")) {
                 String channelName = (String) parts.get(1);
@@ -294,13 +581,13 @@ public class CommandDecoder extends ReplayingDecoder<State> {
                 String patternName = (String) parts.get(1);
                 return messageDecoders.get(patternName);
             }
-            return currentDecoder;
+            return STRING_DECODER;
         }
 
         Decoder<Object> decoder = data.getCommand().getReplayDecoder();
         if (parts != null) {
             MultiDecoder<Object> multiDecoder = data.getCommand().getReplayMultiDecoder();
-            if (multiDecoder.isApplicable(parts.size(), state())) {
+            if (multiDecoder.isApplicable(parts.size(), state)) {
                 decoder = multiDecoder;
             }
         }
@@ -322,48 +609,64 @@ public class CommandDecoder extends ReplayingDecoder<State> {
         return decoder;
     }
 
-    public ByteBuf readBytes(ByteBuf is) throws IOException {
-        long l = readLong(is);
-        if (l > Integer.MAX_VALUE) {
-            throw new IllegalArgumentException(
-                    "Java only supports arrays up to " + Integer.MAX_VALUE + " in size");
+    /**
+     * Returns status reply located between <code>start</code> and <code>end</code>.
+     * Well-known statuses are returned as constants without allocation.
+     */
+    private String status(ByteBuf in, int start, int end) {
+        for (int i = 0; i < STATUSES.length; i++) {
+            if (end - start == STATUS_BYTES[i].length && startsWith(in, start, end, STATUS_BYTES[i])) {
+                return STATUSES[i];
+            }
         }
-        int size = (int) l;
-        if (size == -1) {
-            return null;
+        return in.toString(start, end - start, CharsetUtil.UTF_8);
+    }
+
+    /**
+     * Reads slot number of redirection error, which is followed by node address.
+     */
+    private int readSlot(ByteBuf in, int start, int end) throws IOException {
+        int slotEnd = in.indexOf(start, end, (byte) ' ');
+        if (slotEnd == -1) {
+            slotEnd = end;
         }
-        ByteBuf buffer = is.readSlice(size);
-        int cr = is.readByte();
-        int lf = is.readByte();
-        if (cr != CR || lf != LF) {
-            throw new IOException("Improper line ending: " + cr + ", " + lf);
+        return (int) readLong(in, start, slotEnd);
+    }
+
+    private String readUrl(ByteBuf in, int start, int end) {
+        int urlStart = in.indexOf(start, end, (byte) ' ') + 1;
+        return in.toString(urlStart, end - urlStart, CharsetUtil.US_ASCII);
+    }
+
+    private static boolean startsWith(ByteBuf in, int start, int end, byte[] prefix) {
+        if (end - start < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (in.getByte(start + i) != prefix[i]) {
+                return false;
+            }
         }
-        return buffer;
+        return true;
     }
 
-    public static long readLong(ByteBuf is) throws IOException {
+    public static long readLong(ByteBuf is, int start, int end) throws IOException {
         long size = 0;
         int sign = 1;
-        int read = is.readByte();
-        if (read == '-') {
-            read = is.readByte();
+        int i = start;
+        if (is.getByte(i) == '-') {
+            i++;
             sign = -1;
         }
-        do {
-            if (read == CR) {
-                if (is.readByte() == LF) {
-                    break;
-                }
-            }
-            int value = read - ZERO;
+        for (; i < end; i++) {
+            int value = is.getByte(i) - ZERO;
             if (value >= 0 && value < 10) {
                 size *= 10;
                 size += value;
             } else {
                 throw new IOException("Invalid character in integer");
             }
-            read = is.readByte();
-        } while (true);
+        }
         return size * sign;
     }
 
@@ -15,16 +15,23 @@
  */
 package org.redisson.client.handler;
 
+import java.io.IOException;
+import java.util.List;
+
+import org.redisson.client.protocol.ByteBufEncoder;
 import org.redisson.client.protocol.CommandData;
 import org.redisson.client.protocol.Encoder;
 import org.redisson.client.protocol.StringParamsEncoder;
+import org.redisson.client.protocol.Utf8Writer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.redisson.client.protocol.RedisCommand.ValueType;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.MessageToMessageEncoder;
 import io.netty.util.CharsetUtil;
 
 /**
@@ -35,7 +42,7 @@ import io.netty.util.CharsetUtil;
  * @author Nikita Koksharov
  *
  */
-public class CommandEncoder extends MessageToByteEncoder<CommandData<Object, Object>> {
+public class CommandEncoder extends MessageToMessageEncoder<CommandData<Object, Object>> {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
 
@@ -44,48 +51,138 @@ public class CommandEncoder extends MessageToByteEncoder<CommandData<Object, Obj
     final char ARGS_PREFIX = '*';
     final char BYTES_PREFIX = '$';
     final byte[] CRLF = "\r\n".getBytes();
+    // bytes prefix, max int length in chars and CRLF
+    final int MAX_HEADER_SIZE = 13;
+    // expected size of argument encoded by ByteBufEncoder
+    final int ARG_SIZE_HINT = 32;
 
     @Override
-    protected void encode(ChannelHandlerContext ctx, CommandData<Object, Object> msg, ByteBuf out) throws Exception {
-        out.writeByte(ARGS_PREFIX);
-        int len = 1 + msg.getParams().length;
-        if (msg.getCommand().getSubName() != null) {
-            len++;
+    protected void encode(ChannelHandlerContext ctx, CommandData<Object, Object> msg, List<Object> out) throws Exception {
+        // frame encoded in caller thread is written as is
+        ByteBuf buf = msg.getFrame();
+        if (buf == null) {
+            buf = encode(ctx.alloc(), msg);
         }
-        out.writeBytes(toChars(len));
-        out.writeBytes(CRLF);
 
-        writeArgument(out, msg.getCommand().getName().getBytes("UTF-8"));
-        if (msg.getCommand().getSubName() != null) {
-            writeArgument(out, msg.getCommand().getSubName().getBytes("UTF-8"));
+        if (log.isTraceEnabled()) {
+            log.trace("channel: {} message: {}", ctx.channel(), buf.toString(CharsetUtil.UTF_8));
         }
-        int i = 1;
-        for (Object param : msg.getParams()) {
-            Encoder encoder = paramsEncoder;
-            if (msg.getCommand().getInParamType().size() == 1) {
-                if (msg.getCommand().getInParamIndex() == i && msg.getCommand().getInParamType().get(0) == ValueType.OBJECT) {
-                    encoder = msg.getCodec().getValueEncoder();
-                } else if (msg.getCommand().getInParamIndex() <= i && msg.getCommand().getInParamType().get(0) != ValueType.OBJECT) {
-                    encoder = encoder(msg, i - msg.getCommand().getInParamIndex());
-                }
-            } else {
-                int paramNum = i - msg.getCommand().getInParamIndex();
-                if (msg.getCommand().getInParamIndex() <= i) {
-                    encoder = encoder(msg, paramNum);
+        out.add(buf);
+    }
+
+    /**
+     * Encodes command into buffer. Could be invoked outside of event loop.
+     *
+     * String argument is written with header right into buffer, since its length
+     * is calculated in advance. Argument encoded by other {@link ByteBufEncoder}
+     * is written after space reserved for the longest length header.
+     * Actual header is written just before argument, so unused part of reserved
+     * space is skipped by returning {@link CompositeByteBuf} of buffer slices.
+     *
+     * @param alloc - buffer allocator
+     * @param msg - command
+     * @return encoded command
+     */
+    public ByteBuf encode(ByteBufAllocator alloc, CommandData<?, ?> msg) throws IOException {
+        ByteBuf out = alloc.ioBuffer(estimateSize(msg));
+        CompositeByteBuf result = null;
+        int segmentIndex = 0;
+        try {
+            out.writeByte(ARGS_PREFIX);
+            int len = 1 + msg.getParams().length;
+            if (msg.getCommand().getSubName() != null) {
+                len++;
+            }
+            out.writeBytes(toChars(len));
+            out.writeBytes(CRLF);
+
+            out.writeBytes(msg.getCommand().getNameFrame());
+            if (msg.getCommand().getSubName() != null) {
+                out.writeBytes(msg.getCommand().getSubNameFrame());
+            }
+            int i = 1;
+            for (Object param : msg.getParams()) {
+                Encoder encoder = paramEncoder(msg, i);
+                if (encoder instanceof StringParamsEncoder) {
+                    writeArgument(out, param.toString());
+                } else if (encoder instanceof ByteBufEncoder) {
+                    int reservedIndex = out.writerIndex();
+                    int headerIndex = writeArgument(out, (ByteBufEncoder) encoder, param);
+                    if (headerIndex > reservedIndex) {
+                        if (result == null) {
+                            result = alloc.compositeBuffer(Integer.MAX_VALUE);
+                        }
+                        addSegment(result, out, segmentIndex, reservedIndex);
+                        segmentIndex = headerIndex;
+                    }
+                } else {
+                    writeArgument(out, encoder.encode(param));
                 }
+
+                i++;
+            }
+
+            if (result == null) {
+                return out;
+            }
+            addSegment(result, out, segmentIndex, out.writerIndex());
+            out.release();
+            return result;
+        } catch (IOException e) {
+            out.release();
+            if (result != null) {
+                result.release();
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            out.release();
+            if (result != null) {
+                result.release();
             }
+            throw e;
+        }
+    }
 
-            writeArgument(out, encoder.encode(param));
+    private void addSegment(CompositeByteBuf result, ByteBuf buf, int start, int end) {
+        result.addComponent(buf.slice(start, end - start).retain());
+        result.writerIndex(result.writerIndex() + end - start);
+    }
 
-            i++;
+    private int estimateSize(CommandData<?, ?> msg) {
+        int size = 16 + msg.getCommand().getNameFrame().length;
+        if (msg.getCommand().getSubName() != null) {
+            size += msg.getCommand().getSubNameFrame().length;
         }
+        for (Object param : msg.getParams()) {
+            if (param instanceof byte[]) {
+                size += ((byte[]) param).length;
+            } else if (param instanceof CharSequence) {
+                size += ((CharSequence) param).length();
+            } else {
+                size += ARG_SIZE_HINT;
+            }
+            size += MAX_HEADER_SIZE + CRLF.length;
+        }
+        return size;
+    }
 
-        if (log.isTraceEnabled()) {
-            log.trace("channel: {} message: {}", ctx.channel(), out.toString(CharsetUtil.UTF_8));
+    private Encoder paramEncoder(CommandData<?, ?> msg, int i) {
+        if (msg.getCommand().getInParamType().size() == 1) {
+            if (msg.getCommand().getInParamIndex() == i && msg.getCommand().getInParamType().get(0) == ValueType.OBJECT) {
+                return msg.getCodec().getValueEncoder();
+            } else if (msg.getCommand().getInParamIndex() <= i && msg.getCommand().getInParamType().get(0) != ValueType.OBJECT) {
+                return encoder(msg, i - msg.getCommand().getInParamIndex());
+            }
+        } else {
+            int paramNum = i - msg.getCommand().getInParamIndex();
+            if (msg.getCommand().getInParamIndex() <= i) {
+                return encoder(msg, paramNum);
+            }
         }
+        return paramsEncoder;
     }
 
-    private Encoder encoder(CommandData<Object, Object> msg, int param) {
+    private Encoder encoder(CommandData<?, ?> msg, int param) {
         int typeIndex = 0;
         if (msg.getCommand().getInParamType().size() > 1) {
             typeIndex = param;
@@ -117,6 +214,36 @@ public class CommandEncoder extends MessageToByteEncoder<CommandData<Object, Obj
         out.writeBytes(CRLF);
     }
 
+    private void writeArgument(ByteBuf out, String arg) {
+        out.writeByte(BYTES_PREFIX);
+        out.writeBytes(toChars(Utf8Writer.length(arg)));
+        out.writeBytes(CRLF);
+        Utf8Writer.write(out, arg);
+        out.writeBytes(CRLF);
+    }
+
+    /**
+     * Encodes argument right after space reserved for the longest header,
+     * then writes actual header just before argument. Argument is written only once.
+     *
+     * @return index of header
+     */
+    private int writeArgument(ByteBuf out, ByteBufEncoder encoder, Object param) throws IOException {
+        out.writeZero(MAX_HEADER_SIZE);
+        int argIndex = out.writerIndex();
+
+        encoder.encode(param, out);
+
+        int length = out.writerIndex() - argIndex;
+        byte[] lengthChars = toChars(length);
+        int headerIndex = argIndex - CRLF.length - lengthChars.length - 1;
+        out.setByte(headerIndex, BYTES_PREFIX);
+        out.setBytes(headerIndex + 1, lengthChars);
+        out.setBytes(argIndex - CRLF.length, CRLF);
+        out.writeBytes(CRLF);
+        return headerIndex;
+    }
+
     final static char[] DigitTens = {'0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1', '1', '1', '1',
             '1', '1', '1', '1', '1', '1', '2', '2', '2', '2', '2', '2', '2', '2', '2', '2', '3', '3', '3',
             '3', '3', '3', '3', '3', '3', '3', '4', '4', '4', '4', '4', '4', '4', '4', '4', '4', '5', '5',
@@ -180,7 +307,30 @@ public class CommandEncoder extends MessageToByteEncoder<CommandData<Object, Obj
         }
     }
 
+    // chars of small numbers used as length prefixes, shared and never modified
+    private static final int CACHED_CHARS_SIZE = 1024;
+    private static final byte[][] CACHED_CHARS = new byte[CACHED_CHARS_SIZE][];
+
+    static {
+        for (int i = 0; i < CACHED_CHARS_SIZE; i++) {
+            CACHED_CHARS[i] = createChars(i);
+        }
+    }
+
+    /**
+     * Returns chars of number. Returned array should not be modified.
+     *
+     * @param i - number
+     * @return chars
+     */
     public static byte[] toChars(long i) {
+        if (i >= 0 && i < CACHED_CHARS_SIZE) {
+            return CACHED_CHARS[(int) i];
+        }
+        return createChars(i);
+    }
+
+    private static byte[] createChars(long i) {
         int size = (i < 0) ? stringSize(-i) + 1 : stringSize(i);
         byte[] buf = new byte[size];
         getChars(i, size, buf);
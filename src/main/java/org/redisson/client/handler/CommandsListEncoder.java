@@ -15,24 +15,26 @@
  */
 package org.redisson.client.handler;
 
+import java.util.List;
+
 import org.redisson.client.protocol.CommandData;
 import org.redisson.client.protocol.CommandsData;
 
-import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.MessageToMessageEncoder;
 
 /**
  *
  * @author Nikita Koksharov
  *
  */
-public class CommandsListEncoder extends MessageToByteEncoder<CommandsData> {
+public class CommandsListEncoder extends MessageToMessageEncoder<CommandsData> {
 
     @Override
-    protected void encode(ChannelHandlerContext ctx, CommandsData msg, ByteBuf out) throws Exception {
+    protected void encode(ChannelHandlerContext ctx, CommandsData msg, List<Object> out) throws Exception {
+        CommandEncoder encoder = ctx.pipeline().get(CommandEncoder.class);
         for (CommandData<?, ?> commandData : msg.getCommands()) {
-            ctx.pipeline().get(CommandEncoder.class).encode(ctx, (CommandData<Object, Object>)commandData, out);
+            encoder.encode(ctx, (CommandData<Object, Object>)commandData, out);
         }
     }
 
@@ -15,6 +15,7 @@
  */
 package org.redisson.client.handler;
 
+import java.util.ArrayDeque;
 import java.util.List;
 import java.util.Queue;
 
@@ -27,67 +28,75 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
-import io.netty.util.AttributeKey;
-import io.netty.util.internal.PlatformDependent;
 
 /**
+ * Keeps commands written to channel in FIFO order
+ * so replies could be matched to them in the same order.
  *
+ * Commands are written to channel immediately without waiting
+ * for reply of previous command, thus connection could be
+ * shared and pipelined by many callers.
+ *
+ * All methods are invoked in channel's event loop only.
  *
  * @author Nikita Koksharov
  *
  */
 public class CommandsQueue extends ChannelDuplexHandler {
 
-    public static final AttributeKey<QueueCommand> REPLAY = AttributeKey.valueOf("promise");
+    private final Queue<QueueCommandHolder> queue = new ArrayDeque<QueueCommandHolder>();
 
-    private final Queue<QueueCommandHolder> queue = PlatformDependent.newMpscQueue();
+    /**
+     * Returns command awaiting for reply or <code>null</code>
+     * if there are no commands in flight.
+     *
+     * @return command
+     */
+    public QueueCommand peek() {
+        QueueCommandHolder holder = queue.peek();
+        if (holder == null) {
+            return null;
+        }
+        return holder.getCommand();
+    }
 
-    public void sendNextCommand(ChannelHandlerContext ctx) throws Exception {
-        ctx.channel().attr(CommandsQueue.REPLAY).remove();
+    /**
+     * Removes command from the head of queue then its reply has been decoded.
+     */
+    public void commandDone() {
         queue.poll();
-        sendData(ctx);
+    }
+
+    public int size() {
+        return queue.size();
     }
 
     @Override
     public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
         if (msg instanceof QueueCommand) {
             QueueCommand data = (QueueCommand) msg;
-            QueueCommandHolder holder = queue.peek();
-            if (holder != null && holder.getCommand() == data) {
-                super.write(ctx, msg, promise);
-            } else {
-                queue.add(new QueueCommandHolder(data, promise));
-                sendData(ctx);
-            }
-        } else {
-            super.write(ctx, msg, promise);
-        }
-    }
-
-    private void sendData(final ChannelHandlerContext ctx) throws Exception {
-        QueueCommandHolder command = queue.peek();
-        if (command != null && command.getSended().compareAndSet(false, true)) {
-            QueueCommand data = command.getCommand();
             List<CommandData<Object, Object>> pubSubOps = data.getPubSubOperations();
             if (!pubSubOps.isEmpty()) {
+                // replies for pub/sub commands are routed by channel name
                 for (CommandData<Object, Object> cd : pubSubOps) {
                     for (Object channel : cd.getParams()) {
                         ctx.pipeline().get(CommandDecoder.class).addChannel(channel.toString(), cd);
                     }
                 }
             } else {
-                ctx.channel().attr(REPLAY).set(data);
-            }
-            command.getChannelPromise().addListener(new ChannelFutureListener() {
-                @Override
-                public void operationComplete(ChannelFuture future) throws Exception {
-                    if (!future.isSuccess()) {
-                        sendNextCommand(ctx);
+                final QueueCommandHolder holder = new QueueCommandHolder(data, promise);
+                queue.add(holder);
+                promise.addListener(new ChannelFutureListener() {
+                    @Override
+                    public void operationComplete(ChannelFuture future) throws Exception {
+                        if (!future.isSuccess()) {
+                            queue.remove(holder);
+                        }
                     }
-                }
-            });
-            ctx.channel().writeAndFlush(data, command.getChannelPromise());
+                });
+            }
         }
+        super.write(ctx, msg, promise);
     }
 
 }
@@ -0,0 +1,111 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.client.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+
+/**
+ * Consolidates flushes of commands written to channel during
+ * the same event loop iteration into single flush.
+ *
+ * Flush is made right away if amount of not flushed commands
+ * or bytes exceeds limit.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class FlushConsolidationHandler extends ChannelDuplexHandler {
+
+    public static final int DEFAULT_MAX_COMMANDS = 128;
+    public static final int DEFAULT_MAX_BYTES = 64 * 1024;
+
+    private final int maxCommands;
+    private final int maxBytes;
+
+    private int pendingCommands;
+    private long pendingBytes;
+    private boolean flushScheduled;
+
+    private ChannelHandlerContext ctx;
+
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            flushScheduled = false;
+            if (pendingCommands > 0) {
+                flushNow(ctx);
+            }
+        }
+    };
+
+    public FlushConsolidationHandler() {
+        this(DEFAULT_MAX_COMMANDS, DEFAULT_MAX_BYTES);
+    }
+
+    public FlushConsolidationHandler(int maxCommands, int maxBytes) {
+        this.maxCommands = maxCommands;
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+        this.ctx = ctx;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        pendingCommands++;
+        if (msg instanceof ByteBuf) {
+            pendingBytes += ((ByteBuf) msg).readableBytes();
+        }
+        ctx.write(msg, promise);
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception {
+        if (pendingCommands >= maxCommands || pendingBytes >= maxBytes) {
+            flushNow(ctx);
+            return;
+        }
+        if (!flushScheduled) {
+            flushScheduled = true;
+            // executed after the tasks already submitted to event loop
+            ctx.channel().eventLoop().execute(flushTask);
+        }
+    }
+
+    @Override
+    public void disconnect(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+        flushNow(ctx);
+        ctx.disconnect(promise);
+    }
+
+    @Override
+    public void close(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+        flushNow(ctx);
+        ctx.close(promise);
+    }
+
+    private void flushNow(ChannelHandlerContext ctx) {
+        pendingCommands = 0;
+        pendingBytes = 0;
+        ctx.flush();
+    }
+
+}
@@ -15,6 +15,7 @@
  */
 package org.redisson.client.handler;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class State {
@@ -22,25 +23,35 @@ public class State {
     private int index;
     private Object decoderState;
 
-    private long size;
-    private List<Object> respParts;
+    private final List<StateLevel> levels = new ArrayList<StateLevel>();
 
     public State() {
         super();
     }
 
-    public void setSize(long size) {
-        this.size = size;
+    /**
+     * Stack of multi-bulk replies which are not fully decoded yet.
+     * Last element is the most nested one.
+     *
+     * @return levels
+     */
+    public List<StateLevel> getLevels() {
+        return levels;
     }
-    public long getSize() {
-        return size;
+
+    public StateLevel getLastLevel() {
+        if (levels.isEmpty()) {
+            return null;
+        }
+        return levels.get(levels.size() - 1);
     }
 
-    public void setRespParts(List<Object> respParts) {
-        this.respParts = respParts;
+    public void addLevel(StateLevel level) {
+        levels.add(level);
     }
-    public List<Object> getRespParts() {
-        return respParts;
+
+    public StateLevel removeLastLevel() {
+        return levels.remove(levels.size() - 1);
     }
 
     public void setIndex(int index) {
@@ -0,0 +1,65 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.client.handler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Partially decoded multi-bulk reply
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class StateLevel {
+
+    private final long size;
+    private final List<Object> parts;
+    private long index;
+
+    public StateLevel(long size) {
+        this.size = size;
+        this.parts = new ArrayList<Object>((int) Math.min(Math.max(size, 0), 1024));
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public List<Object> getParts() {
+        return parts;
+    }
+
+    /**
+     * Amount of decoded elements.
+     * Could differ from <code>parts</code> size since not each element
+     * is added to it, error replies for example.
+     *
+     * @return amount
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    public void incIndex() {
+        index++;
+    }
+
+    public boolean isDone() {
+        return index >= size;
+    }
+
+}
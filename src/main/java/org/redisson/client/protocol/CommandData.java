@@ -22,6 +22,7 @@ import java.util.List;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.protocol.decoder.MultiDecoder;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.util.concurrent.Promise;
 
 public class CommandData<T, R> implements QueueCommand {
@@ -31,17 +32,26 @@ public class CommandData<T, R> implements QueueCommand {
     final Object[] params;
     final Codec codec;
     final MultiDecoder<Object> messageDecoder;
+    final ByteBuf frame;
 
     public CommandData(Promise<R> promise, Codec codec, RedisCommand<T> command, Object[] params) {
         this(promise, null, codec, command, params);
     }
 
     public CommandData(Promise<R> promise, MultiDecoder<Object> messageDecoder, Codec codec, RedisCommand<T> command, Object[] params) {
+        this(promise, messageDecoder, codec, command, params, null);
+    }
+
+    /**
+     * @param frame - already encoded command, it's written to channel as is and released after write
+     */
+    public CommandData(Promise<R> promise, MultiDecoder<Object> messageDecoder, Codec codec, RedisCommand<T> command, Object[] params, ByteBuf frame) {
         this.promise = promise;
         this.command = command;
         this.params = params;
         this.codec = codec;
         this.messageDecoder = messageDecoder;
+        this.frame = frame;
     }
 
     public RedisCommand<T> getCommand() {
@@ -64,6 +74,10 @@ public class CommandData<T, R> implements QueueCommand {
         return codec;
     }
 
+    public ByteBuf getFrame() {
+        return frame;
+    }
+
     @Override
     public String toString() {
         return "CommandData [promise=" + promise + ", command=" + command + ", params="
@@ -15,13 +15,10 @@
  */
 package org.redisson.client.protocol;
 
-import java.util.concurrent.atomic.AtomicBoolean;
-
 import io.netty.channel.ChannelPromise;
 
 public class QueueCommandHolder {
 
-    final AtomicBoolean sended = new AtomicBoolean();
     final ChannelPromise channelPromise;
     final QueueCommand command;
 
@@ -39,8 +36,4 @@ public class QueueCommandHolder {
         return channelPromise;
     }
 
-    public AtomicBoolean getSended() {
-        return sended;
-    }
-
 }
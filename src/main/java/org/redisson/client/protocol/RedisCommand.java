@@ -15,6 +15,7 @@
  */
 package org.redisson.client.protocol;
 
+import java.io.UnsupportedEncodingException;
 import java.util.Arrays;
 import java.util.List;
 
@@ -33,10 +34,20 @@ public class RedisCommand<R> {
     private final String name;
     private final String subName;
 
+    // pre-encoded bulk string frames of name and subName
+    private final byte[] nameFrame;
+    private final byte[] subNameFrame;
+
+    private static final String EVALSHA = "EVALSHA";
+    private static final byte[] EVALSHA_FRAME = encodeFrame(EVALSHA);
+
     private MultiDecoder<R> replayMultiDecoder;
     private Decoder<R> replayDecoder;
     Convertor<R> convertor = new EmptyConvertor<R>();
 
+    // EVALSHA copy of EVAL command, created on first use
+    private volatile RedisCommand<R> evalShaCommand;
+
     /**
      * Copy command and change name
      *
@@ -44,11 +55,17 @@ public class RedisCommand<R> {
      * @param name - new command name
      */
     public RedisCommand(RedisCommand<R> command, String name) {
+        this(command, name, encodeFrame(name));
+    }
+
+    private RedisCommand(RedisCommand<R> command, String name, byte[] nameFrame) {
         this.outParamType = command.outParamType;
         this.inParamType = command.inParamType;
         this.inParamIndex = command.inParamIndex;
         this.name = name;
         this.subName = command.subName;
+        this.nameFrame = nameFrame;
+        this.subNameFrame = command.subNameFrame;
         this.replayMultiDecoder = command.replayMultiDecoder;
         this.replayDecoder = command.replayDecoder;
         this.convertor = command.convertor;
@@ -182,11 +199,59 @@ public class RedisCommand<R> {
         super();
         this.name = name;
         this.subName = subName;
+        this.nameFrame = encodeFrame(name);
+        this.subNameFrame = encodeFrame(subName);
         this.replayMultiDecoder = replayMultiDecoder;
         this.replayDecoder = reponseDecoder;
         this.inParamIndex = objectParamIndex;
     }
 
+    private static byte[] encodeFrame(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            int length = value.getBytes("UTF-8").length;
+            return ("$" + length + "\r\n" + value + "\r\n").getBytes("UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns copy of this command named EVALSHA.
+     * Copy is created once per command instance.
+     *
+     * @return EVALSHA command
+     */
+    public RedisCommand<R> getEvalShaCommand() {
+        RedisCommand<R> command = evalShaCommand;
+        if (command == null) {
+            command = new RedisCommand<R>(this, EVALSHA, EVALSHA_FRAME);
+            evalShaCommand = command;
+        }
+        return command;
+    }
+
+    /**
+     * Returns name encoded as bulk string frame
+     *
+     * @return frame bytes
+     */
+    public byte[] getNameFrame() {
+        return nameFrame;
+    }
+
+    /**
+     * Returns subName encoded as bulk string frame
+     * or <code>null</code> if command hasn't subName
+     *
+     * @return frame bytes
+     */
+    public byte[] getSubNameFrame() {
+        return subNameFrame;
+    }
+
     public String getSubName() {
         return subName;
     }
@@ -17,7 +17,9 @@ package org.redisson.client.protocol;
 
 import java.io.UnsupportedEncodingException;
 
-public class StringParamsEncoder implements Encoder {
+import io.netty.buffer.ByteBuf;
+
+public class StringParamsEncoder implements ByteBufEncoder {
 
     @Override
     public byte[] encode(Object in) {
@@ -28,4 +30,9 @@ public class StringParamsEncoder implements Encoder {
         }
     }
 
+    @Override
+    public void encode(Object in, ByteBuf out) {
+        Utf8Writer.write(out, in.toString());
+    }
+
 }
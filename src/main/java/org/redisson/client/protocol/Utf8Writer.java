@@ -0,0 +1,88 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.client.protocol;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Writes UTF-8 encoded chars right into buffer.
+ *
+ * Used instead of <code>ByteBufUtil.writeUtf8</code> which
+ * encodes surrogate pairs as two separate chars for pooled buffers.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class Utf8Writer {
+
+    private Utf8Writer() {
+    }
+
+    /**
+     * Returns amount of bytes written by {@link #write(ByteBuf, CharSequence)}
+     *
+     * @param seq
+     * @return length in bytes
+     */
+    public static int length(CharSequence seq) {
+        int len = seq.length();
+        int size = 0;
+        for (int i = 0; i < len; i++) {
+            char c = seq.charAt(i);
+            if (c < 0x80) {
+                size++;
+            } else if (c < 0x800) {
+                size += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(seq.charAt(i + 1))) {
+                i++;
+                size += 4;
+            } else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+                size++;
+            } else {
+                size += 3;
+            }
+        }
+        return size;
+    }
+
+    public static void write(ByteBuf out, CharSequence seq) {
+        int len = seq.length();
+        out.ensureWritable(len * 3);
+        for (int i = 0; i < len; i++) {
+            char c = seq.charAt(i);
+            if (c < 0x80) {
+                out.writeByte(c);
+            } else if (c < 0x800) {
+                out.writeByte(0xc0 | (c >> 6));
+                out.writeByte(0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(seq.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, seq.charAt(++i));
+                out.writeByte(0xf0 | (codePoint >> 18));
+                out.writeByte(0x80 | ((codePoint >> 12) & 0x3f));
+                out.writeByte(0x80 | ((codePoint >> 6) & 0x3f));
+                out.writeByte(0x80 | (codePoint & 0x3f));
+            } else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+                // unpaired surrogate is replaced like String.getBytes does
+                out.writeByte('?');
+            } else {
+                out.writeByte(0xe0 | (c >> 12));
+                out.writeByte(0x80 | ((c >> 6) & 0x3f));
+                out.writeByte(0x80 | (c & 0x3f));
+            }
+        }
+    }
+
+}
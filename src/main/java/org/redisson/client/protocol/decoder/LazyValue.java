@@ -0,0 +1,118 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.client.protocol.decoder;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+
+import org.redisson.client.RedisException;
+import org.redisson.client.handler.State;
+import org.redisson.client.protocol.Decoder;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.ReferenceCounted;
+
+/**
+ * Handle of reply value which is decoded only on first access.
+ *
+ * Keeps reference to the retained reply bytes until value is decoded
+ * or handle is released, so handles which are not needed
+ * should be released via {@link #release()}.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <T> value type
+ */
+public class LazyValue<T> {
+
+    private final Decoder<T> decoder;
+    private final State state;
+    private ByteBuf buf;
+    private T value;
+
+    public LazyValue(ByteBuf buf, Decoder<T> decoder, State state) {
+        this.buf = buf;
+        this.decoder = decoder;
+        this.state = state;
+    }
+
+    /**
+     * Decodes value if it hasn't been decoded yet
+     * and releases underlying bytes.
+     *
+     * @return decoded value
+     */
+    public synchronized T get() {
+        if (buf == null) {
+            return value;
+        }
+        try {
+            value = decoder.decode(buf, state);
+        } catch (IOException e) {
+            throw new RedisException("Can't decode value", e);
+        } finally {
+            buf.release();
+            buf = null;
+        }
+        return value;
+    }
+
+    public synchronized boolean isDecoded() {
+        return buf == null;
+    }
+
+    /**
+     * Releases underlying bytes without decoding.
+     * Value can't be accessed after that.
+     */
+    public synchronized void release() {
+        if (buf == null) {
+            return;
+        }
+        buf.release();
+        buf = null;
+    }
+
+    /**
+     * Releases handles and reference counted objects contained in reply
+     * which won't be passed to caller, for example due to timeout.
+     *
+     * @param result - decoded reply
+     */
+    public static void releaseAll(Object result) {
+        if (result instanceof LazyValue) {
+            ((LazyValue<?>) result).release();
+        } else if (result instanceof ReferenceCounted) {
+            ReferenceCounted counted = (ReferenceCounted) result;
+            if (counted.refCnt() > 0) {
+                counted.release();
+            }
+        } else if (result instanceof MapScanResult) {
+            releaseAll(((MapScanResult<?, ?>) result).getMap());
+        } else if (result instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) result).entrySet()) {
+                releaseAll(entry.getKey());
+                releaseAll(entry.getValue());
+            }
+        } else if (result instanceof Collection) {
+            for (Object element : (Collection<?>) result) {
+                releaseAll(element);
+            }
+        }
+    }
+
+}
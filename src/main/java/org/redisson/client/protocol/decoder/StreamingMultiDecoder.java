@@ -0,0 +1,52 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.client.protocol.decoder;
+
+import org.redisson.client.handler.State;
+
+import io.netty.channel.Channel;
+
+/**
+ * Multi-bulk reply decoder which receives top-level elements of reply
+ * one by one right after they have been decoded. Elements are not collected
+ * into list, so <code>decode(List, State)</code> receives empty list
+ * then reply is complete.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <T> result type
+ */
+public interface StreamingMultiDecoder<T> extends MultiDecoder<T> {
+
+    /**
+     * Invoked in channel's event loop for each top-level element of reply.
+     * <code>state</code> object stays the same during whole reply decoding.
+     *
+     * @param element - decoded element
+     * @param state - reply state
+     * @param channel - channel reply is received from
+     */
+    void onElement(Object element, State state, Channel channel);
+
+    /**
+     * Returns counter which grows while elements of reply are received
+     * or consumed. Command timeout is extended while it changes.
+     *
+     * @return progress counter
+     */
+    long getProgress();
+
+}
@@ -20,6 +20,7 @@ import java.io.IOException;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.handler.State;
 import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.ByteBufEncoder;
 import org.redisson.client.protocol.Encoder;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
@@ -36,6 +37,7 @@ import com.fasterxml.jackson.databind.jsontype.TypeResolverBuilder;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 
 /**
  *
@@ -50,11 +52,16 @@ public class JsonJacksonCodec implements Codec {
 		return new ObjectMapper();
 	}
 
-    private final Encoder encoder = new Encoder() {
+    private final Encoder encoder = new ByteBufEncoder() {
         @Override
         public byte[] encode(Object in) throws IOException {
             return mapObjectMapper.writeValueAsBytes(in);
         }
+
+        @Override
+        public void encode(Object in, ByteBuf out) throws IOException {
+            mapObjectMapper.writeValue(new ByteBufOutputStream(out), in);
+        }
     };
 
     private final Decoder<Object> decoder = new Decoder<Object>() {
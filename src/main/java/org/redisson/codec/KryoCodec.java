@@ -25,6 +25,7 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.handler.State;
 import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.ByteBufEncoder;
 import org.redisson.client.protocol.Encoder;
 
 import com.esotericsoftware.kryo.Kryo;
@@ -33,6 +34,7 @@ import com.esotericsoftware.kryo.io.Output;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 
 public class KryoCodec implements Codec {
 
@@ -113,7 +115,7 @@ public class KryoCodec implements Codec {
         }
     };
 
-    private final Encoder encoder = new Encoder() {
+    private final Encoder encoder = new ByteBufEncoder() {
 
         @Override
         public byte[] encode(Object in) throws IOException {
@@ -136,6 +138,26 @@ public class KryoCodec implements Codec {
                 }
             }
         }
+
+        @Override
+        public void encode(Object in, ByteBuf out) throws IOException {
+            Kryo kryo = null;
+            try {
+                Output output = new Output(new ByteBufOutputStream(out));
+                kryo = kryoPool.get();
+                kryo.writeClassAndObject(output, in);
+                output.flush();
+            } catch (Exception e) {
+                if (e instanceof RuntimeException) {
+                    throw (RuntimeException) e;
+                }
+                throw new RedissonKryoCodecException(e);
+            } finally {
+                if (kryo != null) {
+                    kryoPool.yield(kryo);
+                }
+            }
+        }
     };
 
     public KryoCodec() {
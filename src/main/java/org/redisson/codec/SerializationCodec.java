@@ -23,10 +23,12 @@ import java.io.ObjectOutputStream;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.handler.State;
 import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.ByteBufEncoder;
 import org.redisson.client.protocol.Encoder;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 
 /**
  *
@@ -49,7 +51,7 @@ public class SerializationCodec implements Codec {
         }
     };
 
-    private final Encoder encoder = new Encoder() {
+    private final Encoder encoder = new ByteBufEncoder() {
 
         @Override
         public byte[] encode(Object in) throws IOException {
@@ -59,6 +61,13 @@ public class SerializationCodec implements Codec {
             outputStream.close();
             return result.toByteArray();
         }
+
+        @Override
+        public void encode(Object in, ByteBuf out) throws IOException {
+            ObjectOutputStream outputStream = new ObjectOutputStream(new ByteBufOutputStream(out));
+            outputStream.writeObject(in);
+            outputStream.close();
+        }
     };
 
     @Override
@@ -61,4 +61,48 @@ public class CRC16 {
         return crc & 0xFFFF;
     }
 
+    /**
+     * Create a CRC16 checksum from the UTF-8 representation of
+     * characters in range without encoding them into array.
+     *
+     * @param chars
+     * @param start - index of first character, inclusive
+     * @param end - index of last character, exclusive
+     * @return CRC16 as interger value
+     */
+    public static int crc16(CharSequence chars, int start, int end) {
+        int crc = 0x0000;
+
+        for (int i = start; i < end; i++) {
+            char c = chars.charAt(i);
+            if (c < 0x80) {
+                crc = update(crc, c);
+            } else if (c < 0x800) {
+                crc = update(crc, 0xC0 | (c >> 6));
+                crc = update(crc, 0x80 | (c & 0x3F));
+            } else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+                if (Character.isHighSurrogate(c) && i + 1 < end
+                        && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, chars.charAt(++i));
+                    crc = update(crc, 0xF0 | (codePoint >> 18));
+                    crc = update(crc, 0x80 | ((codePoint >> 12) & 0x3F));
+                    crc = update(crc, 0x80 | ((codePoint >> 6) & 0x3F));
+                    crc = update(crc, 0x80 | (codePoint & 0x3F));
+                } else {
+                    // malformed surrogate is replaced as String.getBytes does
+                    crc = update(crc, '?');
+                }
+            } else {
+                crc = update(crc, 0xE0 | (c >> 12));
+                crc = update(crc, 0x80 | ((c >> 6) & 0x3F));
+                crc = update(crc, 0x80 | (c & 0x3F));
+            }
+        }
+        return crc & 0xFFFF;
+    }
+
+    private static int update(int crc, int b) {
+        return (crc << 8) ^ LOOKUP_TABLE[((crc >>> 8) ^ b) & 0xFF];
+    }
+
 }
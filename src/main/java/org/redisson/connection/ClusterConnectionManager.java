@@ -15,27 +15,39 @@
  */
 package org.redisson.connection;
 
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
 import io.netty.util.concurrent.GlobalEventExecutor;
+import io.netty.util.concurrent.Promise;
 import io.netty.util.concurrent.ScheduledFuture;
+import io.netty.util.internal.PlatformDependent;
 
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.redisson.ClusterServersConfig;
 import org.redisson.Config;
 import org.redisson.MasterSlaveServersConfig;
+import org.redisson.ReadMode;
 import org.redisson.client.RedisClient;
 import org.redisson.client.RedisConnection;
 import org.redisson.client.RedisConnectionException;
 import org.redisson.client.protocol.RedisCommands;
+import org.redisson.client.protocol.RedisStrictCommand;
 import org.redisson.connection.ClusterNodeInfo.Flag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,81 +56,190 @@ public class ClusterConnectionManager extends MasterSlaveConnectionManager {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
 
-    private final Map<URI, RedisConnection> nodeConnections = new HashMap<URI, RedisConnection>();
+    private final ConcurrentMap<URI, RedisConnection> nodeConnections = PlatformDependent.newConcurrentHashMap();
 
     private final Map<Integer, ClusterPartition> lastPartitions = new HashMap<Integer, ClusterPartition>();
 
+    private static final long MIN_REFRESH_INTERVAL = 100;
+
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+
+    private volatile long lastUpdateTime;
+
+    private final ClusterServersConfig cfg;
+
     private ScheduledFuture<?> monitorFuture;
 
     public ClusterConnectionManager(ClusterServersConfig cfg, Config config) {
         init(config);
 
+        this.cfg = cfg;
         this.config = create(cfg);
         init(this.config);
 
+        // all nodes are requested in parallel, first reply is used
+        long deadline = System.currentTimeMillis() + cfg.getTimeout();
+        final BlockingQueue<Future<String>> replies = new LinkedBlockingQueue<Future<String>>();
         for (URI addr : cfg.getNodeAddresses()) {
-            RedisConnection connection = connect(cfg, addr);
-            if (connection == null) {
-                continue;
-            }
-
-            String nodesValue = connection.sync(RedisCommands.CLUSTER_NODES);
+            Future<String> future = send(cfg, addr, RedisCommands.CLUSTER_NODES);
+            future.addListener(new FutureListener<String>() {
+                @Override
+                public void operationComplete(Future<String> future) throws Exception {
+                    replies.add(future);
+                }
+            });
+        }
 
-            Map<Integer, ClusterPartition> partitions = parsePartitions(nodesValue);
-            for (ClusterPartition partition : partitions.values()) {
-                addMasterEntry(partition, cfg);
+        for (int i = 0; i < cfg.getNodeAddresses().size(); i++) {
+            Future<String> future = poll(replies, deadline);
+            if (future == null) {
+                log.warn("Can't get cluster nodes state during {} ms", cfg.getTimeout());
+                break;
+            }
+            if (!future.isSuccess()) {
+                log.warn(future.cause().getMessage(), future.cause());
+                continue;
             }
 
+            Map<Integer, ClusterPartition> partitions = parsePartitions(future.getNow());
+            addMasterEntries(partitions.values(), cfg, deadline);
             break;
         }
 
         monitorClusterChange(cfg);
     }
 
-    private RedisConnection connect(ClusterServersConfig cfg, URI addr) {
+    private <T> Future<T> poll(BlockingQueue<Future<T>> queue, long deadline) {
+        try {
+            return queue.poll(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private Future<RedisConnection> connect(ClusterServersConfig cfg, final URI addr) {
         RedisConnection connection = nodeConnections.get(addr);
         if (connection != null) {
-            return connection;
-        }
-        RedisClient client = createClient(addr.getHost(), addr.getPort(), cfg.getTimeout());
-        try {
-            connection = client.connect();
-            nodeConnections.put(addr, connection);
-        } catch (RedisConnectionException e) {
-            log.warn(e.getMessage(), e);
-        } catch (Exception e) {
-            log.error(e.getMessage(), e);
+            return getGroup().next().newSucceededFuture(connection);
         }
-        return connection;
+
+        final RedisClient client = createClient(addr.getHost(), addr.getPort(), cfg.getTimeout());
+        final Promise<RedisConnection> result = newPromise();
+        client.connectAsync().addListener(new FutureListener<RedisConnection>() {
+            @Override
+            public void operationComplete(Future<RedisConnection> future) throws Exception {
+                if (!future.isSuccess()) {
+                    client.shutdownAsync();
+                    result.setFailure(new RedisConnectionException("Unable to connect to " + addr, future.cause()));
+                    return;
+                }
+
+                RedisConnection connection = future.getNow();
+                RedisConnection oldConnection = nodeConnections.putIfAbsent(addr, connection);
+                if (oldConnection != null) {
+                    // connected concurrently
+                    client.shutdownAsync();
+                    connection = oldConnection;
+                }
+                result.setSuccess(connection);
+            }
+        });
+        return result;
+    }
+
+    private <T> Future<T> send(ClusterServersConfig cfg, URI addr, final RedisStrictCommand<T> command) {
+        final Promise<T> result = newPromise();
+        connect(cfg, addr).addListener(new FutureListener<RedisConnection>() {
+            @Override
+            public void operationComplete(Future<RedisConnection> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+
+                Future<T> commandFuture = future.getNow().async(command);
+                commandFuture.addListener(new FutureListener<T>() {
+                    @Override
+                    public void operationComplete(Future<T> future) throws Exception {
+                        if (future.isSuccess()) {
+                            result.setSuccess(future.getNow());
+                        } else {
+                            result.setFailure(future.cause());
+                        }
+                    }
+                });
+            }
+        });
+        return result;
     }
 
     @Override
     protected void initEntry(MasterSlaveServersConfig config) {
     }
 
-    private void addMasterEntry(ClusterPartition partition, ClusterServersConfig cfg) {
-        if (partition.isMasterFail()) {
-            log.warn("master: {} for slot range: {}-{} add failed. Reason - server has FAIL flag", partition.getMasterAddress(), partition.getStartSlot(), partition.getEndSlot());
-            return;
-        }
+    @Override
+    public boolean isClusterMode() {
+        return true;
+    }
 
-        RedisConnection connection = connect(cfg, partition.getMasterAddress());
-        if (connection == null) {
-            return;
+    /**
+     * Requests state of all masters in parallel and adds entries
+     * for masters which replied till <code>deadline</code>.
+     */
+    private void addMasterEntries(Collection<ClusterPartition> partitions, ClusterServersConfig cfg, long deadline) {
+        Map<ClusterPartition, Future<Map<String, String>>> futures = new LinkedHashMap<ClusterPartition, Future<Map<String, String>>>();
+        for (ClusterPartition partition : partitions) {
+            if (partition.isMasterFail()) {
+                log.warn("master: {} for slot range: {}-{} add failed. Reason - server has FAIL flag", partition.getMasterAddress(), partition.getStartSlot(), partition.getEndSlot());
+                continue;
+            }
+            futures.put(partition, send(cfg, partition.getMasterAddress(), RedisCommands.CLUSTER_INFO));
         }
-        Map<String, String> params = connection.sync(RedisCommands.CLUSTER_INFO);
-        if ("fail".equals(params.get("cluster_state"))) {
-            log.warn("master: {} for slot range: {}-{} add failed. Reason - cluster_state:fail", partition.getMasterAddress(), partition.getStartSlot(), partition.getEndSlot());
-            return;
+
+        for (Entry<ClusterPartition, Future<Map<String, String>>> entry : futures.entrySet()) {
+            ClusterPartition partition = entry.getKey();
+            Future<Map<String, String>> future = entry.getValue();
+            future.awaitUninterruptibly(Math.max(0, deadline - System.currentTimeMillis()));
+            if (!future.isSuccess()) {
+                log.warn("master: {} for slot range: {}-{} add failed. Reason - can't get cluster info", partition.getMasterAddress(), partition.getStartSlot(), partition.getEndSlot(), future.cause());
+                continue;
+            }
+
+            Map<String, String> params = future.getNow();
+            if ("fail".equals(params.get("cluster_state"))) {
+                log.warn("master: {} for slot range: {}-{} add failed. Reason - cluster_state:fail", partition.getMasterAddress(), partition.getStartSlot(), partition.getEndSlot());
+                continue;
+            }
+
+            addMasterEntry(partition, cfg);
         }
+    }
 
+    private void addMasterEntry(ClusterPartition partition, ClusterServersConfig cfg) {
         MasterSlaveServersConfig config = create(cfg);
         log.info("master: {} for slot range: {}-{} added", partition.getMasterAddress(), partition.getStartSlot(), partition.getEndSlot());
         config.setMasterAddress(partition.getMasterAddress());
 
-        SingleEntry entry = new SingleEntry(partition.getStartSlot(), partition.getEndSlot(), this, config);
+        MasterSlaveEntry entry;
+        if (cfg.getReadMode() == ReadMode.MASTER) {
+            entry = new SingleEntry(partition.getStartSlot(), partition.getEndSlot(), this, config);
+        } else {
+            for (URI slaveAddress : partition.getSlaveAddresses()) {
+                config.addSlaveAddress(slaveAddress);
+            }
+            entry = new MasterSlaveEntry(partition.getStartSlot(), partition.getEndSlot(), this, config);
+        }
         entry.setupMasterEntry(config.getMasterAddress().getHost(), config.getMasterAddress().getPort());
-        entries.put(partition.getEndSlot(), entry);
+
+        URI masterAddress = config.getMasterAddress();
+        if (cfg.getReadMode() == ReadMode.SLAVE && !config.getSlaveAddresses().isEmpty()) {
+            entry.slaveDown(masterAddress.getHost(), masterAddress.getPort());
+        }
+        if (cfg.getReadMode() == ReadMode.MASTER_SLAVE && config.getSlaveAddresses().size() > 1) {
+            entry.slaveUp(masterAddress.getHost(), masterAddress.getPort());
+        }
+        addEntry(partition.getEndSlot(), entry);
         lastPartitions.put(partition.getEndSlot(), partition);
     }
 
@@ -126,51 +247,84 @@ public class ClusterConnectionManager extends MasterSlaveConnectionManager {
         monitorFuture = GlobalEventExecutor.INSTANCE.scheduleWithFixedDelay(new Runnable() {
             @Override
             public void run() {
-                try {
-                    for (URI addr : cfg.getNodeAddresses()) {
-                        RedisConnection connection = connect(cfg, addr);
-                            String nodesValue = connection.sync(RedisCommands.CLUSTER_NODES);
-
-                            log.debug("cluster nodes state: {}", nodesValue);
-
-                            Map<Integer, ClusterPartition> partitions = parsePartitions(nodesValue);
-                            for (ClusterPartition newPart : partitions.values()) {
-                                for (ClusterPartition part : lastPartitions.values()) {
-                                    if (newPart.getMasterAddress().equals(part.getMasterAddress())) {
-
-                                        log.debug("found endslot {} for {} fail {}", part.getEndSlot(), part.getMasterAddress(), newPart.isMasterFail());
-
-                                        if (newPart.isMasterFail()) {
-                                            ClusterPartition newMasterPart = partitions.get(part.getEndSlot());
-                                            if (!newMasterPart.getMasterAddress().equals(part.getMasterAddress())) {
-                                                log.info("changing master from {} to {} for {}",
-                                                        part.getMasterAddress(), newMasterPart.getMasterAddress(), newMasterPart.getEndSlot());
-                                                URI newUri = newMasterPart.getMasterAddress();
-                                                URI oldUri = part.getMasterAddress();
-
-                                                changeMaster(newMasterPart.getEndSlot(), newUri.getHost(), newUri.getPort());
-                                                slaveDown(newMasterPart.getEndSlot(), oldUri.getHost(), oldUri.getPort());
-
-                                                part.setMasterAddress(newMasterPart.getMasterAddress());
-                                            }
-                                        }
-                                        break;
-                                    }
-                                }
-                            }
+                updateClusterState(cfg);
+            }
 
-                            checkSlotsChange(cfg, partitions);
+        }, cfg.getScanInterval(), cfg.getScanInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedules cluster state update. Requests made while update
+     * is pending are merged, and updates are not made more often
+     * than once per <code>MIN_REFRESH_INTERVAL</code>.
+     */
+    @Override
+    public void refreshSlots() {
+        if (!refreshScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        long delay = Math.max(0, lastUpdateTime + MIN_REFRESH_INTERVAL - System.currentTimeMillis());
+        GlobalEventExecutor.INSTANCE.schedule(new Runnable() {
+            @Override
+            public void run() {
+                refreshScheduled.set(false);
+                if (!monitorFuture.isCancelled()) {
+                    updateClusterState(cfg);
+                }
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
 
+    // invoked only by GlobalEventExecutor thread
+    private void updateClusterState(ClusterServersConfig cfg) {
+        try {
+            for (URI addr : cfg.getNodeAddresses()) {
+                Future<RedisConnection> connectionFuture = connect(cfg, addr).awaitUninterruptibly();
+                if (!connectionFuture.isSuccess()) {
+                    continue;
+                }
+                RedisConnection connection = connectionFuture.getNow();
+                String nodesValue = connection.sync(RedisCommands.CLUSTER_NODES);
+
+                log.debug("cluster nodes state: {}", nodesValue);
+
+                Map<Integer, ClusterPartition> partitions = parsePartitions(nodesValue);
+                for (ClusterPartition newPart : partitions.values()) {
+                    for (ClusterPartition part : lastPartitions.values()) {
+                        if (newPart.getMasterAddress().equals(part.getMasterAddress())) {
+
+                            log.debug("found endslot {} for {} fail {}", part.getEndSlot(), part.getMasterAddress(), newPart.isMasterFail());
+
+                            if (newPart.isMasterFail()) {
+                                ClusterPartition newMasterPart = partitions.get(part.getEndSlot());
+                                if (!newMasterPart.getMasterAddress().equals(part.getMasterAddress())) {
+                                    log.info("changing master from {} to {} for {}",
+                                            part.getMasterAddress(), newMasterPart.getMasterAddress(), newMasterPart.getEndSlot());
+                                    URI newUri = newMasterPart.getMasterAddress();
+                                    URI oldUri = part.getMasterAddress();
+
+                                    changeMaster(newMasterPart.getEndSlot(), newUri.getHost(), newUri.getPort());
+                                    slaveDown(newMasterPart.getEndSlot(), oldUri.getHost(), oldUri.getPort());
+
+                                    part.setMasterAddress(newMasterPart.getMasterAddress());
+                                }
+                            }
                             break;
+                        }
                     }
-
-                } catch (Exception e) {
-                    log.error(e.getMessage(), e);
                 }
 
+                checkSlotsChange(cfg, partitions);
+
+                break;
             }
 
-        }, cfg.getScanInterval(), cfg.getScanInterval(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.error(e.getMessage(), e);
+        }
+
+        lastUpdateTime = System.currentTimeMillis();
     }
 
     private void checkSlotsChange(ClusterServersConfig cfg, Map<Integer, ClusterPartition> partitions) {
@@ -193,10 +347,11 @@ public class ClusterConnectionManager extends MasterSlaveConnectionManager {
         if (!addSlots.isEmpty()) {
             log.info("{} slots found to add", addSlots.size());
         }
+        List<ClusterPartition> addPartitions = new ArrayList<ClusterPartition>();
         for (Integer slot : addSlots) {
-            ClusterPartition partition = partitions.get(slot);
-            addMasterEntry(partition, cfg);
+            addPartitions.add(partitions.get(slot));
         }
+        addMasterEntries(addPartitions, cfg, System.currentTimeMillis() + cfg.getTimeout());
 
         for (Entry<Integer, MasterSlaveEntry> entry : removeAddrs.entrySet()) {
             InetSocketAddress url = entry.getValue().getClient().getAddr();
@@ -224,18 +379,22 @@ public class ClusterConnectionManager extends MasterSlaveConnectionManager {
                 partitions.put(id, partition);
             }
 
+            if (clusterNodeInfo.getFlags().contains(Flag.SLAVE)) {
+                // failed slave shouldn't mark its master as failed
+                if (!clusterNodeInfo.getFlags().contains(Flag.FAIL)) {
+                    partition.addSlaveAddress(clusterNodeInfo.getAddress());
+                }
+                continue;
+            }
+
             if (clusterNodeInfo.getFlags().contains(Flag.FAIL)) {
                 partition.setMasterFail(true);
             }
 
-            if (clusterNodeInfo.getFlags().contains(Flag.SLAVE)) {
-                partition.addSlaveAddress(clusterNodeInfo.getAddress());
-            } else {
-                partition.setStartSlot(clusterNodeInfo.getStartSlot());
-                partition.setEndSlot(clusterNodeInfo.getEndSlot());
-                result.put(clusterNodeInfo.getEndSlot(), partition);
-                partition.setMasterAddress(clusterNodeInfo.getAddress());
-            }
+            partition.setStartSlot(clusterNodeInfo.getStartSlot());
+            partition.setEndSlot(clusterNodeInfo.getEndSlot());
+            result.put(clusterNodeInfo.getEndSlot(), partition);
+            partition.setMasterAddress(clusterNodeInfo.getAddress());
         }
         return result;
     }
@@ -246,14 +405,22 @@ public class ClusterConnectionManager extends MasterSlaveConnectionManager {
         c.setRetryAttempts(cfg.getRetryAttempts());
         c.setTimeout(cfg.getTimeout());
         c.setPingTimeout(cfg.getPingTimeout());
+        c.setIdleConnectionTimeout(cfg.getIdleConnectionTimeout());
+        c.setConnectionWaitQueueSize(cfg.getConnectionWaitQueueSize());
+        c.setConnectionWaitTimeout(cfg.getConnectionWaitTimeout());
         c.setLoadBalancer(cfg.getLoadBalancer());
+        c.setSlaveWeights(cfg.getSlaveWeights());
         c.setPassword(cfg.getPassword());
         c.setDatabase(cfg.getDatabase());
         c.setClientName(cfg.getClientName());
         c.setRefreshConnectionAfterFails(cfg.getRefreshConnectionAfterFails());
+        c.setPipelining(cfg.isPipelining());
         c.setMasterConnectionPoolSize(cfg.getMasterConnectionPoolSize());
         c.setSlaveConnectionPoolSize(cfg.getSlaveConnectionPoolSize());
         c.setSlaveSubscriptionConnectionPoolSize(cfg.getSlaveSubscriptionConnectionPoolSize());
+        c.setMasterConnectionMinimumIdleSize(cfg.getMasterConnectionMinimumIdleSize());
+        c.setSlaveConnectionMinimumIdleSize(cfg.getSlaveConnectionMinimumIdleSize());
+        c.setSlaveSubscriptionConnectionMinimumIdleSize(cfg.getSlaveSubscriptionConnectionMinimumIdleSize());
         c.setSubscriptionsPerConnection(cfg.getSubscriptionsPerConnection());
         return c;
     }
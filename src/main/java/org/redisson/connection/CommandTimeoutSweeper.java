@@ -0,0 +1,184 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.connection;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import org.redisson.client.RedisConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Tracks timeouts of commands sent to connections.
+ *
+ * Deadline of command is counted from the start of attempt, so it includes
+ * time spent waiting for connection. Commands which haven't waited are sent
+ * in order of their deadlines, so timeouts of commands sent to the same
+ * connection are kept in order of sending and only the head of each
+ * connection's queue is checked by periodic sweep. Rare command with deadline
+ * earlier than deadline of previously sent command is scheduled on timer instead.
+ * Timed out tasks are invoked in sweeping thread or timer thread, never in event loop.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class CommandTimeoutSweeper implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(CommandTimeoutSweeper.class);
+
+    private static class CommandTimeout implements Timeout {
+
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private static final AtomicIntegerFieldUpdater<CommandTimeout> STATE_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(CommandTimeout.class, "state");
+
+        private final TimerTask task;
+        private final long deadline;
+        private volatile int state;
+
+        CommandTimeout(TimerTask task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public Timer timer() {
+            // isn't backed by Timer
+            return null;
+        }
+
+        @Override
+        public TimerTask task() {
+            return task;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state == ST_EXPIRED;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == ST_CANCELLED;
+        }
+
+        @Override
+        public boolean cancel() {
+            return STATE_UPDATER.compareAndSet(this, ST_INIT, ST_CANCELLED);
+        }
+
+        void expire() {
+            if (!STATE_UPDATER.compareAndSet(this, ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            try {
+                task.run(this);
+            } catch (Throwable e) {
+                log.warn("An exception was thrown by timeout task", e);
+            }
+        }
+
+    }
+
+    private static class TimeoutQueue {
+
+        final Queue<CommandTimeout> timeouts = new ConcurrentLinkedQueue<CommandTimeout>();
+
+        volatile long lastDeadline = System.nanoTime();
+
+    }
+
+    private final ConcurrentMap<RedisConnection, TimeoutQueue> queues = PlatformDependent.newConcurrentHashMap();
+    private final Timer timer;
+
+    public CommandTimeoutSweeper(Timer timer) {
+        this.timer = timer;
+    }
+
+    /**
+     * Starts timeout of command which has been sent to connection.
+     *
+     * @param connection - connection used to send command
+     * @param task - invoked then timeout expires
+     * @param deadline - deadline in {@link System#nanoTime()} units
+     * @return timeout handle
+     */
+    public Timeout add(RedisConnection connection, TimerTask task, long deadline) {
+        TimeoutQueue queue = queues.get(connection);
+        if (queue == null) {
+            queue = new TimeoutQueue();
+            TimeoutQueue oldQueue = queues.putIfAbsent(connection, queue);
+            if (oldQueue != null) {
+                queue = oldQueue;
+            }
+        }
+
+        if (deadline - queue.lastDeadline < 0) {
+            // command has waited for connection longer than previous one
+            return timer.newTimeout(task, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+
+        CommandTimeout timeout = new CommandTimeout(task, deadline);
+        queue.lastDeadline = deadline;
+        queue.timeouts.add(timeout);
+        return timeout;
+    }
+
+    @Override
+    public void run() {
+        long now = System.nanoTime();
+        for (Iterator<Map.Entry<RedisConnection, TimeoutQueue>> iterator = queues.entrySet().iterator(); iterator.hasNext();) {
+            Map.Entry<RedisConnection, TimeoutQueue> entry = iterator.next();
+            Queue<CommandTimeout> queue = entry.getValue().timeouts;
+            if (entry.getKey().isClosed()) {
+                // replies won't be received by closed connection
+                iterator.remove();
+                expire(queue, now, true);
+                continue;
+            }
+            expire(queue, now, false);
+        }
+    }
+
+    private void expire(Queue<CommandTimeout> queue, long now, boolean all) {
+        while (true) {
+            CommandTimeout timeout = queue.peek();
+            if (timeout == null) {
+                return;
+            }
+            if (!all && !timeout.isCancelled() && timeout.deadline - now > 0) {
+                return;
+            }
+            queue.poll();
+            timeout.expire();
+        }
+    }
+
+}
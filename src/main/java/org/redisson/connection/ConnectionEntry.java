@@ -36,6 +36,7 @@ public class ConnectionEntry {
     final Logger log = LoggerFactory.getLogger(getClass());
 
     private volatile boolean freezed;
+    private volatile boolean readOnly;
     final RedisClient client;
 
     private final Queue<RedisConnection> connections = new ConcurrentLinkedQueue<RedisConnection>();
@@ -58,6 +59,20 @@ public class ConnectionEntry {
         this.freezed = freezed;
     }
 
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Send <code>READONLY</code> to new connections,
+     * so cluster slave serves reads of its master slots.
+     *
+     * @param readOnly
+     */
+    public void setReadOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+    }
+
     public int getFreeAmount() {
         return connectionsCounter.get();
     }
@@ -77,11 +92,16 @@ public class ConnectionEntry {
         connectionsCounter.incrementAndGet();
     }
 
+    public Queue<RedisConnection> getIdleConnections() {
+        return connections;
+    }
+
     public RedisConnection pollConnection() {
         return connections.poll();
     }
 
     public void releaseConnection(RedisConnection connection) {
+        connection.setLastUsageTime(System.currentTimeMillis());
         connections.add(connection);
     }
 
@@ -108,18 +128,37 @@ public class ConnectionEntry {
         return future;
     }
 
+    /**
+     * Sends connection setup commands. Invoked from netty event loop,
+     * so commands are sent asynchronously. They are written before
+     * connection is handed out, thus executed before any other command.
+     */
     private void prepareConnection(MasterSlaveServersConfig config, RedisConnection conn) {
         if (config.getPassword() != null) {
-            conn.sync(RedisCommands.AUTH, config.getPassword());
+            prepare(conn, conn.async(RedisCommands.AUTH, config.getPassword()));
         }
         if (config.getDatabase() != 0) {
-            conn.sync(RedisCommands.SELECT, config.getDatabase());
+            prepare(conn, conn.async(RedisCommands.SELECT, config.getDatabase()));
         }
         if (config.getClientName() != null) {
-            conn.sync(RedisCommands.CLIENT_SETNAME, config.getClientName());
+            prepare(conn, conn.async(RedisCommands.CLIENT_SETNAME, config.getClientName()));
+        }
+        if (readOnly) {
+            prepare(conn, conn.async(RedisCommands.READONLY));
         }
     }
 
+    private void prepare(final RedisConnection conn, Future<?> future) {
+        future.addListener(new FutureListener<Object>() {
+            @Override
+            public void operationComplete(Future<Object> future) throws Exception {
+                if (!future.isSuccess()) {
+                    log.error("Can't prepare connection: " + conn, future.cause());
+                }
+            }
+        });
+    }
+
     public Future<RedisPubSubConnection> connectPubSub(final MasterSlaveServersConfig config) {
         Future<RedisPubSubConnection> future = client.connectPubSubAsync();
         future.addListener(new FutureListener<RedisPubSubConnection>() {
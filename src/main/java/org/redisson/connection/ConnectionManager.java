@@ -15,7 +15,9 @@
  */
 package org.redisson.connection;
 
+import java.net.URI;
 import java.util.Collection;
+import java.util.List;
 import java.util.NavigableMap;
 import java.util.concurrent.TimeUnit;
 
@@ -50,12 +52,59 @@ public interface ConnectionManager {
 
     HashedWheelTimer getTimer();
 
+    /**
+     * Starts timeout of command which has been sent to connection.
+     *
+     * @param connection - connection used to send command
+     * @param task - invoked then timeout expires
+     * @param deadline - deadline of attempt in {@link System#nanoTime()} units,
+     *                   it includes time spent waiting for connection
+     * @return timeout handle
+     */
+    Timeout newCommandTimeout(RedisConnection connection, TimerTask task, long deadline);
+
     MasterSlaveServersConfig getConfig();
 
     Codec getCodec();
 
+    /**
+     * @return <code>true</code> if connected to Redis cluster
+     */
+    boolean isClusterMode();
+
+    boolean isEncodeInCallerThread();
+
     NavigableMap<Integer, MasterSlaveEntry> getEntries();
 
+    /**
+     * Returns each entry once. Used to execute operation on all masters.
+     *
+     * @return
+     */
+    List<MasterSlaveEntry> getEntryList();
+
+    /**
+     * Returns entry which serves given slot.
+     *
+     * @param slot
+     * @return entry
+     */
+    MasterSlaveEntry getEntry(int slot);
+
+    /**
+     * Returns start slot of entry served by master with given address.
+     *
+     * @param address - master address
+     * @return slot or <code>-1</code> if there is no such master
+     */
+    int getSlot(URI address);
+
+    /**
+     * Requests immediate update of slots distribution.
+     * Invoked then node replies with MOVED redirection.
+     */
+    void refreshSlots();
+
     <R> Promise<R> newPromise();
 
     void releaseRead(int slot, RedisConnection connection);
@@ -74,6 +123,9 @@ public interface ConnectionManager {
     <T> FutureListener<T> createReleaseWriteListener(int slot,
             RedisConnection conn, Timeout timeout);
 
+    <T> FutureListener<T> createPipelinedReleaseListener(int slot, boolean readOnlyMode,
+            RedisConnection conn, Timeout timeout);
+
     RedisClient createClient(String host, int port, int timeout);
 
     RedisClient createClient(String host, int port);
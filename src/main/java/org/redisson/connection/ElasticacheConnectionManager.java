@@ -124,7 +124,7 @@ public class ElasticacheConnectionManager extends MasterSlaveConnectionManager {
                             log.debug("Current master {} unchanged", master);
                         } else if (Role.master.equals(role) && !master.equals(addr) && currentMaster.compareAndSet(master, addr)) {
                             log.info("Master has changed from {} to {}", master, addr);
-                            changeMaster(MAX_SLOT, addr.getHost(), addr.getPort());
+                            changeMaster(0, addr.getHost(), addr.getPort());
                             break;
                         }
                     }
@@ -151,13 +151,21 @@ public class ElasticacheConnectionManager extends MasterSlaveConnectionManager {
         c.setRetryAttempts(cfg.getRetryAttempts());
         c.setTimeout(cfg.getTimeout());
         c.setPingTimeout(cfg.getPingTimeout());
+        c.setIdleConnectionTimeout(cfg.getIdleConnectionTimeout());
+        c.setConnectionWaitQueueSize(cfg.getConnectionWaitQueueSize());
+        c.setConnectionWaitTimeout(cfg.getConnectionWaitTimeout());
         c.setLoadBalancer(cfg.getLoadBalancer());
+        c.setSlaveWeights(cfg.getSlaveWeights());
         c.setPassword(cfg.getPassword());
         c.setDatabase(cfg.getDatabase());
         c.setClientName(cfg.getClientName());
+        c.setPipelining(cfg.isPipelining());
         c.setMasterConnectionPoolSize(cfg.getMasterConnectionPoolSize());
         c.setSlaveConnectionPoolSize(cfg.getSlaveConnectionPoolSize());
         c.setSlaveSubscriptionConnectionPoolSize(cfg.getSlaveSubscriptionConnectionPoolSize());
+        c.setMasterConnectionMinimumIdleSize(cfg.getMasterConnectionMinimumIdleSize());
+        c.setSlaveConnectionMinimumIdleSize(cfg.getSlaveConnectionMinimumIdleSize());
+        c.setSlaveSubscriptionConnectionMinimumIdleSize(cfg.getSlaveSubscriptionConnectionMinimumIdleSize());
         c.setSubscriptionsPerConnection(cfg.getSubscriptionsPerConnection());
         return c;
     }
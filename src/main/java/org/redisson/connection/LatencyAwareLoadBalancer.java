@@ -0,0 +1,62 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.connection;
+
+import java.util.List;
+
+import io.netty.util.internal.ThreadLocalRandom;
+
+/**
+ * Picks two random slave nodes and uses the one with lower
+ * response time multiplied by amount of outstanding requests.
+ * Response time is tracked as exponentially weighted moving average.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class LatencyAwareLoadBalancer implements LoadBalancer {
+
+    @Override
+    public SubscribesConnectionEntry getEntry(List<SubscribesConnectionEntry> clientsCopy) {
+        int size = clientsCopy.size();
+        if (size == 1) {
+            return clientsCopy.get(0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int firstIndex = random.nextInt(size);
+        // second index is always different from first
+        int secondIndex = (firstIndex + 1 + random.nextInt(size - 1)) % size;
+
+        SubscribesConnectionEntry first = clientsCopy.get(firstIndex);
+        SubscribesConnectionEntry second = clientsCopy.get(secondIndex);
+        if (first.isFreezed()) {
+            return second;
+        }
+        if (second.isFreezed()) {
+            return first;
+        }
+        if (cost(second) < cost(first)) {
+            return second;
+        }
+        return first;
+    }
+
+    private long cost(SubscribesConnectionEntry entry) {
+        return (entry.getResponseTime() + 1) * (entry.getOutstandingRequests() + 1);
+    }
+
+}
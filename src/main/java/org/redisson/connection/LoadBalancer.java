@@ -15,42 +15,24 @@
  */
 package org.redisson.connection;
 
-import java.util.Collection;
 import java.util.List;
 
-import org.redisson.MasterSlaveServersConfig;
-import org.redisson.client.RedisClient;
-import org.redisson.client.RedisConnection;
-import org.redisson.client.RedisPubSubConnection;
-
-import io.netty.util.concurrent.Future;
-
+/**
+ * Selects slave entry for read operations and pub/sub subscriptions.
+ * Same instance is used by all master/slave entries,
+ * so implementation shouldn't keep state bound to particular entry.
+ *
+ * @author Nikita Koksharov
+ *
+ */
 public interface LoadBalancer {
 
+    /**
+     * Selects entry for next connection
+     *
+     * @param clientsCopy
+     * @return entry or <code>null</code> if none of entries could be used
+     */
     SubscribesConnectionEntry getEntry(List<SubscribesConnectionEntry> clientsCopy);
 
-    Future<RedisConnection> getConnection(RedisClient client);
-
-    int getAvailableClients();
-
-    void shutdownAsync();
-
-    void shutdown();
-
-    void unfreeze(String host, int port);
-
-    Collection<RedisPubSubConnection> freeze(String host, int port);
-
-    void init(MasterSlaveServersConfig config, ConnectionManager connectionManager);
-
-    void add(SubscribesConnectionEntry entry);
-
-    Future<RedisConnection> nextConnection();
-
-    Future<RedisPubSubConnection> nextPubSubConnection();
-
-    void returnConnection(RedisConnection connection);
-
-    void returnSubscribeConnection(RedisPubSubConnection connection);
-
 }
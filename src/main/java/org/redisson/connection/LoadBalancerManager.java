@@ -28,6 +28,7 @@ import org.redisson.client.RedisConnection;
 import org.redisson.client.RedisConnectionException;
 import org.redisson.client.RedisPubSubConnection;
 import org.redisson.misc.ConnectionPool;
+import org.redisson.misc.ConnectionPoolStats;
 import org.redisson.misc.PubSubConnectionPoll;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,21 +36,29 @@ import org.slf4j.LoggerFactory;
 import io.netty.util.concurrent.Future;
 import io.netty.util.internal.PlatformDependent;
 
-abstract class BaseLoadBalancer implements LoadBalancer {
+/**
+ * Holds slave entries and connection pools of single {@link MasterSlaveEntry}.
+ * Entry for each connection is selected by configured {@link LoadBalancer},
+ * which could be shared between entries.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+class LoadBalancerManager {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
 
-    private ConnectionManager connectionManager;
+    private final ConnectionManager connectionManager;
     final Map<RedisClient, SubscribesConnectionEntry> client2Entry = PlatformDependent.newConcurrentHashMap();
 
-    PubSubConnectionPoll pubSubEntries;
+    final PubSubConnectionPoll pubSubEntries;
 
-    ConnectionPool<RedisConnection> entries;
+    final ConnectionPool<RedisConnection> entries;
 
-    public void init(MasterSlaveServersConfig config, ConnectionManager connectionManager) {
+    public LoadBalancerManager(MasterSlaveServersConfig config, ConnectionManager connectionManager) {
         this.connectionManager = connectionManager;
-        entries = new ConnectionPool<RedisConnection>(config, this, connectionManager.getGroup());
-        pubSubEntries = new PubSubConnectionPoll(config, this, connectionManager.getGroup());
+        entries = new ConnectionPool<RedisConnection>(config, config.getLoadBalancer(), connectionManager.getGroup());
+        pubSubEntries = new PubSubConnectionPoll(config, config.getLoadBalancer(), connectionManager.getGroup());
     }
 
     public synchronized void add(SubscribesConnectionEntry entry) {
@@ -75,6 +84,8 @@ abstract class BaseLoadBalancer implements LoadBalancer {
                 continue;
             }
             connectionEntry.setFreezed(false);
+            entries.initConnections(connectionEntry);
+            pubSubEntries.initConnections(connectionEntry);
             return;
         }
         throw new IllegalStateException("Can't find " + addr + " in slaves!");
@@ -122,6 +133,10 @@ abstract class BaseLoadBalancer implements LoadBalancer {
         return pubSubEntries.get();
     }
 
+    public SubscribesConnectionEntry getEntry(RedisClient client) {
+        return client2Entry.get(client);
+    }
+
     public Future<RedisConnection> getConnection(RedisClient client) {
         SubscribesConnectionEntry entry = client2Entry.get(client);
         if (entry != null) {
@@ -145,16 +160,27 @@ abstract class BaseLoadBalancer implements LoadBalancer {
         entries.returnConnection(entry, connection);
     }
 
+    public ConnectionPoolStats getConnectionPoolStats() {
+        return entries.getStats();
+    }
+
     public void shutdown() {
+        shutdownPools();
         for (SubscribesConnectionEntry entry : client2Entry.values()) {
             entry.getClient().shutdown();
         }
     }
 
     public void shutdownAsync() {
+        shutdownPools();
         for (RedisClient client : client2Entry.keySet()) {
             connectionManager.shutdownAsync(client);
         }
     }
 
+    private void shutdownPools() {
+        entries.shutdown();
+        pubSubEntries.shutdown();
+    }
+
 }
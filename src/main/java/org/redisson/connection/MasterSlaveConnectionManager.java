@@ -15,15 +15,22 @@
  */
 package org.redisson.connection;
 
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.NavigableMap;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.redisson.Config;
@@ -49,6 +56,7 @@ import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.util.HashedWheelTimer;
 import io.netty.util.Timeout;
 import io.netty.util.TimerTask;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.FutureListener;
 import io.netty.util.concurrent.Promise;
@@ -63,14 +71,27 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
 
     static final int MAX_SLOT = 16384;
 
+    // period of command timeouts check in milliseconds,
+    // timer isn't used for it since its tick could be up to 100 ms
+    private static final int TIMEOUT_SWEEP_INTERVAL = 10;
+
     private final Logger log = LoggerFactory.getLogger(getClass());
 
     private HashedWheelTimer timer;
 
+    private CommandTimeoutSweeper timeoutSweeper;
+
+    private ScheduledExecutorService timeoutSweepExecutor;
+
     protected Codec codec;
 
     protected EventLoopGroup group;
 
+    private Executor decodeExecutor;
+
+    private boolean encodeInCallerThread;
+
+    private boolean flushConsolidation;
 
     protected Class<? extends SocketChannel> socketChannelClass;
 
@@ -80,6 +101,14 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
 
     protected final NavigableMap<Integer, MasterSlaveEntry> entries = new ConcurrentSkipListMap<Integer, MasterSlaveEntry>();
 
+    /**
+     * Copy of <code>entries</code> indexed by slot.
+     * Replaced as a whole on each topology change.
+     */
+    private volatile MasterSlaveEntry[] slot2entry = new MasterSlaveEntry[MAX_SLOT];
+
+    private volatile List<MasterSlaveEntry> entryList = Collections.emptyList();
+
     private final InfinitySemaphoreLatch shutdownLatch = new InfinitySemaphoreLatch();
 
     private final Set<RedisClientEntry> clients = Collections.newSetFromMap(new ConcurrentHashMap<RedisClientEntry, Boolean>());
@@ -102,11 +131,76 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
         return codec;
     }
 
+    @Override
+    public Timeout newCommandTimeout(RedisConnection connection, TimerTask task, long deadline) {
+        return timeoutSweeper.add(connection, task, deadline);
+    }
+
+    @Override
+    public boolean isEncodeInCallerThread() {
+        return encodeInCallerThread;
+    }
+
     @Override
     public NavigableMap<Integer, MasterSlaveEntry> getEntries() {
         return entries;
     }
 
+    @Override
+    public List<MasterSlaveEntry> getEntryList() {
+        return entryList;
+    }
+
+    @Override
+    public boolean isClusterMode() {
+        return false;
+    }
+
+    @Override
+    public int getSlot(URI address) {
+        InetSocketAddress addr = new InetSocketAddress(address.getHost(), address.getPort());
+        for (MasterSlaveEntry entry : entryList) {
+            if (addr.equals(entry.getClient().getAddr())) {
+                return entry.getStartSlot();
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void refreshSlots() {
+    }
+
+    protected void addEntry(int endSlot, MasterSlaveEntry entry) {
+        entries.put(endSlot, entry);
+        updateSlotTable();
+    }
+
+    /**
+     * Rebuilds slot table and entry list from <code>entries</code>.
+     * Slot is routed to entry with nearest end slot as before.
+     */
+    protected synchronized void updateSlotTable() {
+        MasterSlaveEntry[] table = new MasterSlaveEntry[MAX_SLOT];
+        for (int slot = 0; slot < table.length; slot++) {
+            Entry<Integer, MasterSlaveEntry> entry = entries.ceilingEntry(slot);
+            if (entry == null) {
+                break;
+            }
+            table[slot] = entry.getValue();
+        }
+
+        List<MasterSlaveEntry> list = new ArrayList<MasterSlaveEntry>();
+        for (MasterSlaveEntry entry : entries.values()) {
+            if (!list.contains(entry)) {
+                list.add(entry);
+            }
+        }
+
+        slot2entry = table;
+        entryList = Collections.unmodifiableList(list);
+    }
+
     public MasterSlaveConnectionManager(MasterSlaveServersConfig cfg, Config config) {
         init(cfg, config);
     }
@@ -126,13 +220,19 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
             timer = new HashedWheelTimer(100, TimeUnit.MILLISECONDS);
         }
 
+        // command timeouts are swept in dedicated thread,
+        // so retries caused by timeouts are never executed in event loop
+        timeoutSweeper = new CommandTimeoutSweeper(timer);
+        timeoutSweepExecutor = Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("redisson-timeout-sweeper", true));
+        timeoutSweepExecutor.scheduleWithFixedDelay(timeoutSweeper, TIMEOUT_SWEEP_INTERVAL, TIMEOUT_SWEEP_INTERVAL, TimeUnit.MILLISECONDS);
+
         initEntry(config);
     }
 
     protected void initEntry(MasterSlaveServersConfig config) {
         MasterSlaveEntry entry = new MasterSlaveEntry(0, MAX_SLOT, this, config);
         entry.setupMasterEntry(config.getMasterAddress().getHost(), config.getMasterAddress().getPort());
-        entries.put(MAX_SLOT, entry);
+        addEntry(MAX_SLOT, entry);
     }
 
     protected void init(Config cfg) {
@@ -144,6 +244,9 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
             this.socketChannelClass = NioSocketChannel.class;
         }
         this.codec = cfg.getCodec();
+        this.decodeExecutor = cfg.getDecodeExecutor();
+        this.encodeInCallerThread = cfg.isEncodeInCallerThread();
+        this.flushConsolidation = cfg.isFlushConsolidation();
     }
 
     @Override
@@ -160,7 +263,7 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
 
     @Override
     public RedisClient createClient(String host, int port, int timeout) {
-        return new RedisClient(group, socketChannelClass, host, port, timeout);
+        return new RedisClient(group, decodeExecutor, flushConsolidation, socketChannelClass, host, port, timeout);
     }
 
     @Override
@@ -185,9 +288,17 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
     @Override
     public <T> FutureListener<T> createReleaseReadListener(final int slot,
                                     final RedisConnection conn, final Timeout timeout) {
+        final SubscribesConnectionEntry entry = getEntry(slot).getReadEntry(conn.getRedisClient());
+        final long startTime = System.nanoTime();
+        if (entry != null) {
+            entry.requestStarted();
+        }
         return new FutureListener<T>() {
             @Override
             public void operationComplete(io.netty.util.concurrent.Future<T> future) throws Exception {
+                if (entry != null) {
+                    entry.requestCompleted(System.nanoTime() - startTime);
+                }
                 if (!future.isSuccess()) {
                     conn.incFailAttempt();
                 } else {
@@ -201,21 +312,57 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
         };
     }
 
+    @Override
+    public <T> FutureListener<T> createPipelinedReleaseListener(int slot, boolean readOnlyMode,
+                                    final RedisConnection conn, final Timeout timeout) {
+        // response time of read is tracked even if connection is shared
+        final SubscribesConnectionEntry entry;
+        if (readOnlyMode) {
+            entry = getEntry(slot).getReadEntry(conn.getRedisClient());
+        } else {
+            entry = null;
+        }
+        final long startTime = System.nanoTime();
+        if (entry != null) {
+            entry.requestStarted();
+        }
+        return new FutureListener<T>() {
+            @Override
+            public void operationComplete(io.netty.util.concurrent.Future<T> future) throws Exception {
+                if (entry != null) {
+                    entry.requestCompleted(System.nanoTime() - startTime);
+                }
+                if (!future.isSuccess()) {
+                    conn.incFailAttempt();
+                } else {
+                    conn.resetFailAttempt();
+                }
+
+                shutdownLatch.release();
+                timeout.cancel();
+            }
+        };
+    }
+
     @Override
     public int calcSlot(String key) {
         if (entries.size() == 1 || key == null) {
             return 0;
         }
 
-        int start = key.indexOf('{');
-        if (start != -1) {
-            int end = key.indexOf('}');
-            key = key.substring(start+1, end);
+        int start = 0;
+        int end = key.length();
+        // only non-empty hash tag is used, as Redis does
+        int tagStart = key.indexOf('{');
+        if (tagStart != -1) {
+            int tagEnd = key.indexOf('}', tagStart + 1);
+            if (tagEnd > tagStart + 1) {
+                start = tagStart + 1;
+                end = tagEnd;
+            }
         }
 
-        int result = CRC16.crc16(key.getBytes()) % MAX_SLOT;
-        log.debug("slot {} for {}", result, key);
-        return result;
+        return CRC16.crc16(key, start, end) % MAX_SLOT;
     }
 
     @Override
@@ -471,8 +618,9 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
         return entryCodec;
     }
 
-    protected MasterSlaveEntry getEntry(int slot) {
-        return entries.ceilingEntry(slot).getValue();
+    @Override
+    public MasterSlaveEntry getEntry(int slot) {
+        return slot2entry[slot];
     }
 
     protected void slaveDown(int slot, String host, int port) {
@@ -531,12 +679,14 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
         }
     }
 
-    protected void changeMaster(int endSlot, String host, int port) {
-        getEntry(endSlot).changeMaster(host, port);
+    protected void changeMaster(int slot, String host, int port) {
+        getEntry(slot).changeMaster(host, port);
     }
 
     protected MasterSlaveEntry removeMaster(int endSlot) {
-        return entries.remove(endSlot);
+        MasterSlaveEntry entry = entries.remove(endSlot);
+        updateSlotTable();
+        return entry;
     }
 
     @Override
@@ -590,6 +740,7 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
         for (MasterSlaveEntry entry : entries.values()) {
             entry.shutdown();
         }
+        timeoutSweepExecutor.shutdownNow();
         timer.stop();
         group.shutdownGracefully().syncUninterruptibly();
     }
@@ -26,6 +26,8 @@ import org.redisson.client.RedisClient;
 import org.redisson.client.RedisConnection;
 import org.redisson.client.RedisPubSubConnection;
 import org.redisson.misc.ConnectionPool;
+import org.redisson.misc.ConnectionPoolStats;
+import org.redisson.misc.MasterConnectionPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,7 +43,7 @@ public class MasterSlaveEntry<E extends ConnectionEntry> {
 
     final Logger log = LoggerFactory.getLogger(getClass());
 
-    LoadBalancer slaveBalancer;
+    final LoadBalancerManager slaveBalancer;
     SubscribesConnectionEntry masterEntry;
 
     final MasterSlaveServersConfig config;
@@ -58,22 +60,24 @@ public class MasterSlaveEntry<E extends ConnectionEntry> {
         this.connectionManager = connectionManager;
         this.config = config;
 
-        slaveBalancer = config.getLoadBalancer();
-        slaveBalancer.init(config, connectionManager);
+        slaveBalancer = new LoadBalancerManager(config, connectionManager);
 
         List<URI> addresses = new ArrayList<URI>(config.getSlaveAddresses());
         addresses.add(config.getMasterAddress());
         for (URI address : addresses) {
             RedisClient client = connectionManager.createClient(address.getHost(), address.getPort());
-            slaveBalancer.add(new SubscribesConnectionEntry(client,
+            SubscribesConnectionEntry entry = new SubscribesConnectionEntry(client,
                     this.config.getSlaveConnectionPoolSize(),
-                    this.config.getSlaveSubscriptionConnectionPoolSize()));
+                    this.config.getSlaveSubscriptionConnectionPoolSize());
+            entry.setWeight(config.getSlaveWeight(address.getHost(), address.getPort()));
+            entry.setReadOnly(connectionManager.isClusterMode() && !address.equals(config.getMasterAddress()));
+            slaveBalancer.add(entry);
         }
         if (config.getSlaveAddresses().size() > 1) {
             slaveDown(config.getMasterAddress().getHost(), config.getMasterAddress().getPort());
         }
 
-        writeConnectionHolder = new ConnectionPool<RedisConnection>(config, null, connectionManager.getGroup());
+        writeConnectionHolder = new MasterConnectionPool(config, null, connectionManager.getGroup());
     }
 
     protected void setupMasterEntry(String host, int port) {
@@ -96,6 +100,8 @@ public class MasterSlaveEntry<E extends ConnectionEntry> {
         SubscribesConnectionEntry entry = new SubscribesConnectionEntry(client,
                 this.config.getSlaveConnectionPoolSize(),
                 this.config.getSlaveSubscriptionConnectionPoolSize());
+        entry.setWeight(config.getSlaveWeight(host, port));
+        entry.setReadOnly(connectionManager.isClusterMode());
         entry.setFreezed(true);
         slaveBalancer.add(entry);
     }
@@ -129,6 +135,7 @@ public class MasterSlaveEntry<E extends ConnectionEntry> {
     }
 
     public void shutdownMasterAsync() {
+        writeConnectionHolder.shutdown();
         connectionManager.shutdownAsync(masterEntry.getClient());
         slaveBalancer.shutdownAsync();
     }
@@ -141,6 +148,17 @@ public class MasterSlaveEntry<E extends ConnectionEntry> {
         return slaveBalancer.nextConnection();
     }
 
+    /**
+     * Returns slave entry used for read operations
+     * through <code>client</code> or <code>null</code> if it doesn't exist
+     *
+     * @param client
+     * @return
+     */
+    public SubscribesConnectionEntry getReadEntry(RedisClient client) {
+        return slaveBalancer.getEntry(client);
+    }
+
     public Future<RedisConnection> connectionReadOp(RedisClient client) {
         return slaveBalancer.getConnection(client);
     }
@@ -162,7 +180,16 @@ public class MasterSlaveEntry<E extends ConnectionEntry> {
         slaveBalancer.returnConnection(сonnection);
     }
 
+    public ConnectionPoolStats getWriteConnectionPoolStats() {
+        return writeConnectionHolder.getStats();
+    }
+
+    public ConnectionPoolStats getReadConnectionPoolStats() {
+        return slaveBalancer.getConnectionPoolStats();
+    }
+
     public void shutdown() {
+        writeConnectionHolder.shutdown();
         masterEntry.getClient().shutdown();
         slaveBalancer.shutdown();
     }
@@ -19,7 +19,10 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.redisson.Config;
@@ -28,7 +31,7 @@ import org.redisson.SentinelServersConfig;
 import org.redisson.client.BaseRedisPubSubListener;
 import org.redisson.client.RedisClient;
 import org.redisson.client.RedisConnection;
-import org.redisson.client.RedisConnectionException;
+import org.redisson.client.RedisException;
 import org.redisson.client.RedisPubSubConnection;
 import org.redisson.client.codec.StringCodec;
 import org.redisson.client.protocol.RedisCommands;
@@ -37,6 +40,9 @@ import org.redisson.misc.URIBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.Promise;
 import io.netty.util.internal.PlatformDependent;
 
 public class SentinelConnectionManager extends MasterSlaveConnectionManager {
@@ -57,55 +63,86 @@ public class SentinelConnectionManager extends MasterSlaveConnectionManager {
         c.setRetryAttempts(cfg.getRetryAttempts());
         c.setTimeout(cfg.getTimeout());
         c.setPingTimeout(cfg.getPingTimeout());
+        c.setIdleConnectionTimeout(cfg.getIdleConnectionTimeout());
+        c.setConnectionWaitQueueSize(cfg.getConnectionWaitQueueSize());
+        c.setConnectionWaitTimeout(cfg.getConnectionWaitTimeout());
         c.setLoadBalancer(cfg.getLoadBalancer());
+        c.setSlaveWeights(cfg.getSlaveWeights());
         c.setPassword(cfg.getPassword());
         c.setDatabase(cfg.getDatabase());
         c.setClientName(cfg.getClientName());
         c.setRefreshConnectionAfterFails(cfg.getRefreshConnectionAfterFails());
+        c.setPipelining(cfg.isPipelining());
         c.setMasterConnectionPoolSize(cfg.getMasterConnectionPoolSize());
         c.setSlaveConnectionPoolSize(cfg.getSlaveConnectionPoolSize());
         c.setSlaveSubscriptionConnectionPoolSize(cfg.getSlaveSubscriptionConnectionPoolSize());
+        c.setMasterConnectionMinimumIdleSize(cfg.getMasterConnectionMinimumIdleSize());
+        c.setSlaveConnectionMinimumIdleSize(cfg.getSlaveConnectionMinimumIdleSize());
+        c.setSlaveSubscriptionConnectionMinimumIdleSize(cfg.getSlaveSubscriptionConnectionMinimumIdleSize());
         c.setSubscriptionsPerConnection(cfg.getSubscriptionsPerConnection());
 
-        List<String> disconnectedSlaves = new ArrayList<String>();
+        // all sentinels are requested in parallel, first reply is used
+        long deadline = System.currentTimeMillis() + c.getTimeout();
+        List<RedisClient> clients = new ArrayList<RedisClient>();
+        final BlockingQueue<Future<MasterInfo>> replies = new LinkedBlockingQueue<Future<MasterInfo>>();
         for (URI addr : cfg.getSentinelAddresses()) {
             RedisClient client = createClient(addr.getHost(), addr.getPort(), c.getTimeout());
+            clients.add(client);
+            Future<MasterInfo> future = requestMaster(client, cfg.getMasterName());
+            future.addListener(new FutureListener<MasterInfo>() {
+                @Override
+                public void operationComplete(Future<MasterInfo> future) throws Exception {
+                    replies.add(future);
+                }
+            });
+        }
+
+        List<String> disconnectedSlaves = new ArrayList<String>();
+        for (int i = 0; i < clients.size(); i++) {
+            Future<MasterInfo> future;
             try {
-                RedisConnection connection = client.connect();
-
-                // TODO async
-                List<String> master = connection.sync(RedisCommands.SENTINEL_GET_MASTER_ADDR_BY_NAME, cfg.getMasterName());
-                String masterHost = master.get(0) + ":" + master.get(1);
-                c.setMasterAddress(masterHost);
-                currentMaster.set(masterHost);
-                log.info("master: {} added", masterHost);
-
-                List<Map<String, String>> sentinelSlaves = connection.sync(RedisCommands.SENTINEL_SLAVES, cfg.getMasterName());
-                for (Map<String, String> map : sentinelSlaves) {
-                    if (map.isEmpty()) {
-                        continue;
-                    }
+                future = replies.poll(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (future == null) {
+                break;
+            }
+            if (!future.isSuccess()) {
+                continue;
+            }
 
-                    String ip = map.get("ip");
-                    String port = map.get("port");
-                    String flags = map.get("flags");
+            MasterInfo info = future.getNow();
+            String masterHost = info.master.get(0) + ":" + info.master.get(1);
+            c.setMasterAddress(masterHost);
+            currentMaster.set(masterHost);
+            log.info("master: {} added", masterHost);
 
-                    String host = ip + ":" + port;
+            for (Map<String, String> map : info.slaves) {
+                if (map.isEmpty()) {
+                    continue;
+                }
 
-                    c.addSlaveAddress(host);
-                    slaves.put(host, true);
-                    log.info("slave: {} added, params: {}", host, map);
+                String ip = map.get("ip");
+                String port = map.get("port");
+                String flags = map.get("flags");
 
-                    if (flags.contains("s_down") || flags.contains("disconnected")) {
-                        disconnectedSlaves.add(host);
-                    }
+                String host = ip + ":" + port;
+
+                c.addSlaveAddress(host);
+                slaves.put(host, true);
+                log.info("slave: {} added, params: {}", host, map);
+
+                if (flags.contains("s_down") || flags.contains("disconnected")) {
+                    disconnectedSlaves.add(host);
                 }
-                break;
-            } catch (RedisConnectionException e) {
-                // skip
-            } finally {
-                client.shutdownAsync();
             }
+            break;
+        }
+
+        for (RedisClient client : clients) {
+            client.shutdownAsync();
         }
 
         if (currentMaster.get() == null) {
@@ -123,6 +160,66 @@ public class SentinelConnectionManager extends MasterSlaveConnectionManager {
         }
     }
 
+    private static class MasterInfo {
+
+        final List<String> master;
+        final List<Map<String, String>> slaves;
+
+        MasterInfo(List<String> master, List<Map<String, String>> slaves) {
+            this.master = master;
+            this.slaves = slaves;
+        }
+
+    }
+
+    /**
+     * Connects to sentinel and requests master and slaves addresses.
+     *
+     * @return master and slaves known by sentinel
+     */
+    private Future<MasterInfo> requestMaster(RedisClient client, final String masterName) {
+        final Promise<MasterInfo> result = newPromise();
+        client.connectAsync().addListener(new FutureListener<RedisConnection>() {
+            @Override
+            public void operationComplete(Future<RedisConnection> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.setFailure(future.cause());
+                    return;
+                }
+
+                final RedisConnection connection = future.getNow();
+                Future<List<String>> masterFuture = connection.async(RedisCommands.SENTINEL_GET_MASTER_ADDR_BY_NAME, masterName);
+                masterFuture.addListener(new FutureListener<List<String>>() {
+                    @Override
+                    public void operationComplete(Future<List<String>> future) throws Exception {
+                        if (!future.isSuccess()) {
+                            result.setFailure(future.cause());
+                            return;
+                        }
+                        final List<String> master = future.getNow();
+                        if (master == null || master.isEmpty()) {
+                            result.setFailure(new RedisException("Sentinel doesn't know master: " + masterName));
+                            return;
+                        }
+
+                        Future<List<Map<String, String>>> slavesFuture = connection.async(RedisCommands.SENTINEL_SLAVES, masterName);
+                        slavesFuture.addListener(new FutureListener<List<Map<String, String>>>() {
+                            @Override
+                            public void operationComplete(Future<List<Map<String, String>>> future) throws Exception {
+                                if (!future.isSuccess()) {
+                                    result.setFailure(future.cause());
+                                    return;
+                                }
+                                result.setSuccess(new MasterInfo(master, future.getNow()));
+                            }
+                        });
+                    }
+                });
+            }
+        });
+        return result;
+    }
+
     private void registerSentinel(final SentinelServersConfig cfg, final URI addr, final MasterSlaveServersConfig c) {
         RedisClient client = createClient(addr.getHost(), addr.getPort(), c.getTimeout());
         RedisClient oldClient = sentinels.putIfAbsent(addr.getHost() + ":" + addr.getPort(), client);
@@ -130,43 +227,53 @@ public class SentinelConnectionManager extends MasterSlaveConnectionManager {
             return;
         }
 
-        try {
-            RedisPubSubConnection pubsub = client.connectPubSub();
-            pubsub.addListener(new BaseRedisPubSubListener<String>() {
+        client.connectPubSubAsync().addListener(new FutureListener<RedisPubSubConnection>() {
+            @Override
+            public void operationComplete(Future<RedisPubSubConnection> future) throws Exception {
+                if (!future.isSuccess()) {
+                    log.warn("can't connect to sentinel: {}:{}", addr.getHost(), addr.getPort());
+                    return;
+                }
 
-                @Override
-                public void onMessage(String channel, String msg) {
-                    if ("+sentinel".equals(channel)) {
-                        onSentinelAdded(cfg, msg, c);
-                    }
-                    if ("+slave".equals(channel)) {
-                        onSlaveAdded(addr, msg);
-                    }
-                    if ("+sdown".equals(channel)) {
-                        onSlaveDown(addr, msg);
-                    }
-                    if ("-sdown".equals(channel)) {
-                        onSlaveUp(addr, msg);
-                    }
-                    if ("+switch-master".equals(channel)) {
-                        onMasterChange(cfg, addr, msg);
-                    }
+                RedisPubSubConnection pubsub = future.getNow();
+                subscribe(cfg, addr, c, pubsub);
+            }
+        });
+    }
+
+    private void subscribe(final SentinelServersConfig cfg, final URI addr, final MasterSlaveServersConfig c, RedisPubSubConnection pubsub) {
+        pubsub.addListener(new BaseRedisPubSubListener<String>() {
+
+            @Override
+            public void onMessage(String channel, String msg) {
+                if ("+sentinel".equals(channel)) {
+                    onSentinelAdded(cfg, msg, c);
+                }
+                if ("+slave".equals(channel)) {
+                    onSlaveAdded(addr, msg);
+                }
+                if ("+sdown".equals(channel)) {
+                    onSlaveDown(addr, msg);
+                }
+                if ("-sdown".equals(channel)) {
+                    onSlaveUp(addr, msg);
+                }
+                if ("+switch-master".equals(channel)) {
+                    onMasterChange(cfg, addr, msg);
                 }
+            }
 
-                @Override
-                public boolean onStatus(PubSubType type, String channel) {
-                    if (type == PubSubType.SUBSCRIBE) {
-                        log.debug("subscribed to channel: {} from Sentinel {}:{}", channel, addr.getHost(), addr.getPort());
-                    }
-                    return true;
+            @Override
+            public boolean onStatus(PubSubType type, String channel) {
+                if (type == PubSubType.SUBSCRIBE) {
+                    log.debug("subscribed to channel: {} from Sentinel {}:{}", channel, addr.getHost(), addr.getPort());
                 }
-            });
+                return true;
+            }
+        });
 
-            pubsub.subscribe(StringCodec.INSTANCE, "+switch-master", "+sdown", "-sdown", "+slave", "+sentinel");
-            log.info("sentinel: {}:{} added", addr.getHost(), addr.getPort());
-        } catch (RedisConnectionException e) {
-            log.warn("can't connect to sentinel: {}:{}", addr.getHost(), addr.getPort());
-        }
+        pubsub.subscribe(StringCodec.INSTANCE, "+switch-master", "+sdown", "-sdown", "+slave", "+sentinel");
+        log.info("sentinel: {}:{} added", addr.getHost(), addr.getPort());
     }
 
     protected void onSentinelAdded(SentinelServersConfig cfg, String msg, MasterSlaveServersConfig c) {
@@ -45,14 +45,21 @@ public class SingleConnectionManager extends MasterSlaveConnectionManager {
         newconfig.setRetryInterval(cfg.getRetryInterval());
         newconfig.setTimeout(cfg.getTimeout());
         newconfig.setPingTimeout(cfg.getPingTimeout());
+        newconfig.setIdleConnectionTimeout(cfg.getIdleConnectionTimeout());
+        newconfig.setConnectionWaitQueueSize(cfg.getConnectionWaitQueueSize());
+        newconfig.setConnectionWaitTimeout(cfg.getConnectionWaitTimeout());
         newconfig.setPassword(cfg.getPassword());
         newconfig.setDatabase(cfg.getDatabase());
         newconfig.setClientName(cfg.getClientName());
         newconfig.setRefreshConnectionAfterFails(cfg.getRefreshConnectionAfterFails());
+        newconfig.setPipelining(cfg.isPipelining());
         newconfig.setMasterAddress(addr);
         newconfig.setMasterConnectionPoolSize(cfg.getConnectionPoolSize());
         newconfig.setSubscriptionsPerConnection(cfg.getSubscriptionsPerConnection());
         newconfig.setSlaveSubscriptionConnectionPoolSize(cfg.getSubscriptionConnectionPoolSize());
+        newconfig.setMasterConnectionMinimumIdleSize(cfg.getConnectionMinimumIdleSize());
+        newconfig.setSlaveConnectionMinimumIdleSize(0);
+        newconfig.setSlaveSubscriptionConnectionMinimumIdleSize(cfg.getSubscriptionConnectionMinimumIdleSize());
 
         init(newconfig, config);
 
@@ -71,7 +78,7 @@ public class SingleConnectionManager extends MasterSlaveConnectionManager {
     protected void initEntry(MasterSlaveServersConfig config) {
         SingleEntry entry = new SingleEntry(0, MAX_SLOT, this, config);
         entry.setupMasterEntry(config.getMasterAddress().getHost(), config.getMasterAddress().getPort());
-        entries.put(MAX_SLOT, entry);
+        addEntry(MAX_SLOT, entry);
     }
 
     private void monitorDnsChange(final SingleServerConfig cfg) {
@@ -84,7 +91,7 @@ public class SingleConnectionManager extends MasterSlaveConnectionManager {
                     if (!now.getHostAddress().equals(master.getHostAddress())) {
                         log.info("Detected DNS change. {} has changed from {} to {}", cfg.getAddress().getHost(), master.getHostAddress(), now.getHostAddress());
                         if (currentMaster.compareAndSet(master, now)) {
-                            changeMaster(MAX_SLOT,cfg.getAddress().getHost(), cfg.getAddress().getPort());
+                            changeMaster(0, cfg.getAddress().getHost(), cfg.getAddress().getPort());
                             log.info("Master has been changed");
                         }
                     }
@@ -20,6 +20,7 @@ import org.redisson.client.RedisClient;
 import org.redisson.client.RedisConnection;
 import org.redisson.client.RedisPubSubConnection;
 import org.redisson.misc.ConnectionPool;
+import org.redisson.misc.ConnectionPoolStats;
 import org.redisson.misc.PubSubConnectionPoll;
 
 import io.netty.util.concurrent.Future;
@@ -56,9 +57,26 @@ public class SingleEntry extends MasterSlaveEntry<SubscribesConnectionEntry> {
         return super.connectionWriteOp();
     }
 
+    @Override
+    public ConnectionPoolStats getReadConnectionPoolStats() {
+        return super.getWriteConnectionPoolStats();
+    }
+
     @Override
     public void releaseRead(RedisConnection сonnection) {
         super.releaseWrite(сonnection);
     }
 
+    @Override
+    public void shutdownMasterAsync() {
+        pubSubConnectionHolder.shutdown();
+        super.shutdownMasterAsync();
+    }
+
+    @Override
+    public void shutdown() {
+        pubSubConnectionHolder.shutdown();
+        super.shutdown();
+    }
+
 }
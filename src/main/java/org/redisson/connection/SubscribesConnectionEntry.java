@@ -16,8 +16,10 @@
 package org.redisson.connection;
 
 import java.util.Queue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.redisson.MasterSlaveServersConfig;
 import org.redisson.client.RedisClient;
@@ -32,6 +34,25 @@ public class SubscribesConnectionEntry extends ConnectionEntry {
     private final Queue<RedisPubSubConnection> freeSubscribeConnections = new ConcurrentLinkedQueue<RedisPubSubConnection>();
     private final AtomicInteger connectionsCounter = new AtomicInteger();
 
+    /**
+     * Weight of previous value in exponentially weighted moving average
+     * of response time. New sample contributes <code>1/RESPONSE_TIME_WEIGHT</code> of it.
+     */
+    static final int RESPONSE_TIME_WEIGHT = 5;
+
+    /**
+     * Response time is halved each period without new samples,
+     * so a node which was slow in past is probed again
+     */
+    static final long RESPONSE_TIME_HALF_LIFE = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicInteger outstandingRequests = new AtomicInteger();
+    private final AtomicLong responseTime = new AtomicLong();
+    private volatile long responseTimeUpdated = System.nanoTime();
+
+    private volatile int weight = 1;
+    private final AtomicInteger currentWeight = new AtomicInteger();
+
     public SubscribesConnectionEntry(RedisClient client, int poolSize, int subscribePoolSize) {
         super(client, poolSize);
         connectionsCounter.set(subscribePoolSize);
@@ -45,7 +66,12 @@ public class SubscribesConnectionEntry extends ConnectionEntry {
         return freeSubscribeConnections.poll();
     }
 
+    public Queue<RedisPubSubConnection> getIdleSubscribeConnections() {
+        return freeSubscribeConnections;
+    }
+
     public void releaseSubscribeConnection(RedisPubSubConnection connection) {
+        connection.setLastUsageTime(System.currentTimeMillis());
         freeSubscribeConnections.add(connection);
     }
 
@@ -68,6 +94,71 @@ public class SubscribesConnectionEntry extends ConnectionEntry {
         connectionsCounter.incrementAndGet();
     }
 
+    public int getWeight() {
+        return weight;
+    }
+
+    public void setWeight(int weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("weight can't be negative");
+        }
+        this.weight = weight;
+    }
+
+    /**
+     * Adds <code>delta</code> to current weight used by
+     * {@link WeightedRoundRobinLoadBalancer}
+     *
+     * @param delta
+     * @return updated current weight
+     */
+    public int addCurrentWeight(int delta) {
+        return currentWeight.addAndGet(delta);
+    }
+
+    public void requestStarted() {
+        outstandingRequests.incrementAndGet();
+    }
+
+    /**
+     * Updates response time average
+     *
+     * @param time - request execution time in nanoseconds
+     */
+    public void requestCompleted(long time) {
+        outstandingRequests.decrementAndGet();
+
+        while (true) {
+            long current = responseTime.get();
+            long value = time;
+            if (current != 0) {
+                value = current + (time - current) / RESPONSE_TIME_WEIGHT;
+            }
+            if (responseTime.compareAndSet(current, value)) {
+                responseTimeUpdated = System.nanoTime();
+                return;
+            }
+        }
+    }
+
+    public int getOutstandingRequests() {
+        return outstandingRequests.get();
+    }
+
+    /**
+     * Exponentially weighted moving average of response time in nanoseconds
+     * decayed by time passed since last completed request.
+     *
+     * @return
+     */
+    public long getResponseTime() {
+        long periods = (System.nanoTime() - responseTimeUpdated) / RESPONSE_TIME_HALF_LIFE;
+        if (periods >= Long.SIZE) {
+            return 0;
+        }
+        return responseTime.get() >> periods;
+    }
+
     public Future<RedisPubSubConnection> connectPubSub(MasterSlaveServersConfig config) {
         Future<RedisPubSubConnection> future = super.connectPubSub(config);
         future.addListener(new FutureListener<RedisPubSubConnection>() {
@@ -0,0 +1,67 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.connection;
+
+import java.util.List;
+
+/**
+ * Smooth weighted round-robin balancer.
+ * Each slave receives amount of read operations proportional to its weight
+ * and selections of the same slave are spread evenly in time.
+ *
+ * @author Nikita Koksharov
+ *
+ * @see org.redisson.BaseMasterSlaveServersConfig#setSlaveWeight(String, int)
+ * @see org.redisson.core.NodesGroup#setWeight(org.redisson.core.Node, int)
+ */
+public class WeightedRoundRobinLoadBalancer implements LoadBalancer {
+
+    /**
+     * Current weights are kept in entries and updated atomically,
+     * so concurrent selections don't block each other.
+     * Each selection adds and subtracts the same total, thus
+     * sum of current weights stays the same.
+     *
+     * @return selected entry or <code>null</code> if all entries
+     *         are freezed or have zero weight
+     */
+    @Override
+    public SubscribesConnectionEntry getEntry(List<SubscribesConnectionEntry> clientsCopy) {
+        SubscribesConnectionEntry selected = null;
+        int selectedWeight = 0;
+        int totalWeight = 0;
+        for (SubscribesConnectionEntry entry : clientsCopy) {
+            int weight = entry.getWeight();
+            if (entry.isFreezed() || weight == 0) {
+                continue;
+            }
+
+            int currentWeight = entry.addCurrentWeight(weight);
+            totalWeight += weight;
+
+            if (selected == null || currentWeight > selectedWeight) {
+                selected = entry;
+                selectedWeight = currentWeight;
+            }
+        }
+
+        if (selected != null) {
+            selected.addCurrentWeight(-totalWeight);
+        }
+        return selected;
+    }
+
+}
@@ -0,0 +1,221 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.connection.decoder;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.redisson.client.RedisException;
+import org.redisson.client.handler.State;
+import org.redisson.client.protocol.decoder.StreamingMultiDecoder;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+
+/**
+ * Iterates over elements of multi-bulk reply while it's being received.
+ *
+ * Buffers up to <code>bufferSize</code> elements. Reading from channel
+ * is suspended then buffer is full and resumed then half of buffer
+ * has been consumed.
+ *
+ * Only elements of the first reply are taken. Command isn't retried,
+ * its timeout is extended while elements are received or consumed.
+ * Command fails if reply makes no progress during command timeout,
+ * connection is closed then because its reply has been read partially.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <V> element type
+ */
+public class StreamingReplyIterator<V> implements Iterator<V>, StreamingMultiDecoder<Integer> {
+
+    private static final Object NULL = new Object();
+    private static final Object END = new Object();
+    private static final Object NONE = new Object();
+
+    private static class Failure {
+
+        private final Throwable cause;
+
+        Failure(Throwable cause) {
+            this.cause = cause;
+        }
+
+    }
+
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<Object>();
+    private final int bufferSize;
+    private final AtomicLong progress = new AtomicLong();
+
+    // state of the reply which elements are taken
+    private State replyState;
+    private volatile Channel suspendedChannel;
+    private volatile boolean closed;
+    private int count;
+
+    private Object nextElement = NONE;
+
+    public StreamingReplyIterator(int bufferSize) {
+        if (bufferSize < 2) {
+            throw new IllegalArgumentException("bufferSize should be greater than 1");
+        }
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Ends iteration with command result.
+     *
+     * @param future - command future
+     */
+    public void setFuture(Future<?> future) {
+        future.addListener(new FutureListener<Object>() {
+            @Override
+            public void operationComplete(Future<Object> future) throws Exception {
+                if (!future.isSuccess()) {
+                    close(new Failure(future.cause()));
+                } else if (!closed) {
+                    close(new Failure(new RedisException("Reply stream has been interrupted")));
+                }
+            }
+        });
+    }
+
+    private void close(Object lastElement) {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        queue.add(lastElement);
+        resume();
+    }
+
+    @Override
+    public void onElement(Object element, State state, Channel channel) {
+        if (closed) {
+            return;
+        }
+        if (replyState == null) {
+            replyState = state;
+        }
+        if (replyState != state) {
+            return;
+        }
+
+        count++;
+        progress.incrementAndGet();
+        if (element == null) {
+            queue.add(NULL);
+        } else {
+            queue.add(element);
+        }
+
+        if (queue.size() >= bufferSize && channel.config().isAutoRead()) {
+            channel.config().setAutoRead(false);
+            suspendedChannel = channel;
+        }
+    }
+
+    @Override
+    public long getProgress() {
+        return progress.get();
+    }
+
+    @Override
+    public Integer decode(List<Object> parts, State state) {
+        if (replyState == null || replyState == state) {
+            close(END);
+        }
+        return count;
+    }
+
+    @Override
+    public Object decode(ByteBuf buf, State state) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean isApplicable(int paramNum, State state) {
+        return false;
+    }
+
+    private void resume() {
+        Channel channel = suspendedChannel;
+        if (channel != null) {
+            suspendedChannel = null;
+            channel.config().setAutoRead(true);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextElement == NONE) {
+            nextElement = take();
+        }
+        return nextElement != END;
+    }
+
+    private Object take() {
+        Object element;
+        try {
+            element = queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedisException("Iteration has been interrupted", e);
+        }
+        progress.incrementAndGet();
+
+        if (queue.size() <= bufferSize / 2) {
+            resume();
+        }
+
+        if (element instanceof Failure) {
+            // keep failure for further hasNext invocations
+            queue.add(element);
+            Throwable cause = ((Failure) element).cause;
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RedisException(cause.getMessage(), cause);
+        }
+        return element;
+    }
+
+    @Override
+    public V next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Object element = nextElement;
+        nextElement = NONE;
+        if (element == NULL) {
+            return null;
+        }
+        return (V) element;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+}
@@ -0,0 +1,51 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.core;
+
+import java.util.EventListener;
+
+/**
+ * Listener for command results of streaming batch.
+ * Invoked once window of commands has been executed.
+ * <p>
+ * Callbacks are invoked on netty event loop thread, so they should not block.
+ * Don't add commands to the same batch from callback: adding blocks
+ * until a window completes, and the window can't complete while
+ * event loop is blocked, thus it leads to deadlock.
+ *
+ * @author Nikita Koksharov
+ *
+ * @see org.redisson.RedissonClient#createBatch(int, int, BatchListener)
+ */
+public interface BatchListener extends EventListener {
+
+    /**
+     * Invokes on every successfully executed command
+     *
+     * @param index of command in batch
+     * @param result of command
+     */
+    void onResult(int index, Object result);
+
+    /**
+     * Invokes on every failed command
+     *
+     * @param index of command in batch
+     * @param cause of failure
+     */
+    void onFailure(int index, Throwable cause);
+
+}
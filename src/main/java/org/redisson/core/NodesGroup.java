@@ -37,4 +37,16 @@ public interface NodesGroup<N extends Node> {
      */
     boolean pingAll();
 
+    /**
+     * Changes weight of node used for read operations.
+     * Node with bigger weight receives proportionally more read operations
+     * then <code>WeightedRoundRobinLoadBalancer</code> is used.
+     *
+     * @param node
+     * @param weight
+     *
+     * @see org.redisson.connection.WeightedRoundRobinLoadBalancer
+     */
+    void setWeight(N node, int weight);
+
 }
@@ -171,17 +171,17 @@ public interface RBatch {
     /**
      * Executes all operations accumulated during async methods invocations.
      *
-     * In cluster configurations operations grouped by slot ids
+     * In cluster configurations operations grouped by nodes
      * so may be executed on different servers. Thus command execution order could be changed
      *
-     * @return
+     * @return results of operations or <code>null</code> for streaming batch
      */
     List<?> execute();
 
     /**
      * Executes all operations accumulated during async methods invocations asynchronously.
      *
-     * In cluster configurations operations grouped by slot ids
+     * In cluster configurations operations grouped by nodes
      * so may be executed on different servers. Thus command execution order could be changed
      *
      * @return
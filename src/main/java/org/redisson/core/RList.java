@@ -15,6 +15,7 @@
  */
 package org.redisson.core;
 
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -28,4 +29,17 @@ public interface RList<V> extends List<V>, RExpirable, RListAsync<V> {
 
     void fastSet(int index, V element);
 
+    /**
+     * Returns iterator over all list elements which are received and decoded
+     * in streaming mode. Elements are not collected into single collection,
+     * up to <code>bufferSize</code> decoded elements are kept in memory.
+     * Reading from connection is suspended then buffer is full.
+     *
+     * Command fails if iterator isn't advanced during command execution timeout.
+     *
+     * @param bufferSize - amount of buffered elements
+     * @return iterator
+     */
+    Iterator<V> streamIterator(int bufferSize);
+
 }
@@ -15,6 +15,7 @@
  */
 package org.redisson.core;
 
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
@@ -54,6 +55,32 @@ public interface RMap<K, V> extends ConcurrentMap<K, V>, RExpirable, RMapAsync<K
      */
     Map<K, V> getAll(Set<K> keys);
 
+    /**
+     * Returns iterator over all map keys which are received and decoded
+     * in streaming mode. Elements are not collected into single collection,
+     * up to <code>bufferSize</code> decoded elements are kept in memory.
+     * Reading from connection is suspended then buffer is full.
+     *
+     * Command fails if iterator isn't advanced during command execution timeout.
+     *
+     * @param bufferSize - amount of buffered elements
+     * @return iterator
+     */
+    Iterator<K> keyStreamIterator(int bufferSize);
+
+    /**
+     * Returns iterator over all map values which are received and decoded
+     * in streaming mode. Elements are not collected into single collection,
+     * up to <code>bufferSize</code> decoded elements are kept in memory.
+     * Reading from connection is suspended then buffer is full.
+     *
+     * Command fails if iterator isn't advanced during command execution timeout.
+     *
+     * @param bufferSize - amount of buffered elements
+     * @return iterator
+     */
+    Iterator<V> valueStreamIterator(int bufferSize);
+
     /**
      * Returns a map slice containing the mappings in whose <code>Map.Entry&lt;K, V&gt; entries</code>
      * satisfy a predicate. This operation traverses all map entries.
@@ -15,6 +15,7 @@
  */
 package org.redisson.core;
 
+import java.util.Iterator;
 import java.util.Set;
 
 /**
@@ -33,4 +34,17 @@ public interface RSet<V> extends Set<V>, RExpirable, RSetAsync<V> {
      */
     V removeRandom();
 
+    /**
+     * Returns iterator over all set elements which are received and decoded
+     * in streaming mode. Elements are not collected into single collection,
+     * up to <code>bufferSize</code> decoded elements are kept in memory.
+     * Reading from connection is suspended then buffer is full.
+     *
+     * Command fails if iterator isn't advanced during command execution timeout.
+     *
+     * @param bufferSize - amount of buffered elements
+     * @return iterator
+     */
+    Iterator<V> streamIterator(int bufferSize);
+
 }
@@ -15,24 +15,36 @@
  */
 package org.redisson.misc;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.redisson.MasterSlaveServersConfig;
 import org.redisson.client.RedisConnection;
 import org.redisson.client.RedisConnectionException;
 import org.redisson.connection.LoadBalancer;
 import org.redisson.connection.SubscribesConnectionEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import io.netty.channel.EventLoopGroup;
 import io.netty.util.concurrent.EventExecutor;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.FutureListener;
 import io.netty.util.concurrent.Promise;
+import io.netty.util.concurrent.ScheduledFuture;
+import io.netty.util.internal.PlatformDependent;
 
 public class ConnectionPool<T extends RedisConnection> {
 
+    final Logger log = LoggerFactory.getLogger(getClass());
+
     final List<SubscribesConnectionEntry> entries = new CopyOnWriteArrayList<SubscribesConnectionEntry>();
 
     EventExecutor executor;
@@ -41,19 +53,181 @@ public class ConnectionPool<T extends RedisConnection> {
 
     LoadBalancer loadBalancer;
 
-    final ConcurrentLinkedQueue<Promise<T>> promises = new ConcurrentLinkedQueue<Promise<T>>();
+    static class Waiter<T> {
+
+        final Promise<T> promise;
+        final long deadline;
+
+        Waiter(Promise<T> promise, long deadline) {
+            this.promise = promise;
+            this.deadline = deadline;
+        }
+
+    }
+
+    static final int WAIT_TIMEOUT_CHECK_INTERVAL = 10;
+
+    final ConcurrentLinkedQueue<Waiter<T>> waiters = new ConcurrentLinkedQueue<Waiter<T>>();
+    final AtomicInteger waitersAmount = new AtomicInteger();
+
+    final Set<SubscribesConnectionEntry> initializingEntries =
+            Collections.newSetFromMap(PlatformDependent.<SubscribesConnectionEntry, Boolean>newConcurrentHashMap());
+
+    final AtomicInteger activeAmount = new AtomicInteger();
+    final AtomicLong createdAmount = new AtomicLong();
+    final AtomicLong evictedAmount = new AtomicLong();
+
+    private ScheduledFuture<?> evictionFuture;
+    private ScheduledFuture<?> waitersExpirationFuture;
 
     public ConnectionPool(MasterSlaveServersConfig config, LoadBalancer loadBalancer, EventLoopGroup eventLoopGroup) {
         this.config = config;
         this.loadBalancer = loadBalancer;
         this.executor = eventLoopGroup.next();
+
+        int idleTimeout = config.getIdleConnectionTimeout();
+        if (idleTimeout > 0) {
+            evictionFuture = executor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    evictIdleConnections();
+                }
+            }, idleTimeout, idleTimeout, TimeUnit.MILLISECONDS);
+        }
+
+        if (config.getConnectionWaitTimeout() > 0) {
+            waitersExpirationFuture = executor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    expireWaiters();
+                }
+            }, WAIT_TIMEOUT_CHECK_INTERVAL, WAIT_TIMEOUT_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+        }
     }
 
     public void add(SubscribesConnectionEntry entry) {
         entries.add(entry);
+        initConnections(entry);
         handleQueue(entry);
     }
 
+    /**
+     * Creates connections in parallel until <code>entry</code>
+     * has at least minimum idle amount of them.
+     * Does nothing for freezed entry or if previous initialization
+     * is still in progress.
+     *
+     * @param entry
+     */
+    public void initConnections(final SubscribesConnectionEntry entry) {
+        if (entry.isFreezed() || !initializingEntries.add(entry)) {
+            return;
+        }
+
+        int amount = getMinimumIdleSize(entry) - getIdleConnections(entry).size();
+        if (amount <= 0) {
+            initializingEntries.remove(entry);
+            return;
+        }
+
+        // permits are acquired before connecting, otherwise permit
+        // released by completed connection could be used again
+        // and pool size could be exceeded
+        int acquired = 0;
+        while (acquired < amount && tryAcquireConnection(entry)) {
+            acquired++;
+        }
+        if (acquired == 0) {
+            initializingEntries.remove(entry);
+            return;
+        }
+
+        final AtomicInteger pending = new AtomicInteger(acquired);
+        for (int i = 0; i < acquired; i++) {
+            Future<T> connFuture = connect(entry);
+            connFuture.addListener(new FutureListener<T>() {
+                @Override
+                public void operationComplete(Future<T> future) throws Exception {
+                    if (future.isSuccess()) {
+                        createdAmount.incrementAndGet();
+                        T conn = future.getNow();
+                        if (entry.isFreezed()) {
+                            conn.closeAsync();
+                        } else {
+                            releaseConnection(entry, conn);
+                        }
+                    } else {
+                        log.warn("Can't init connection to " + entry.getClient().getAddr(), future.cause());
+                    }
+                    releaseConnection(entry);
+
+                    if (pending.decrementAndGet() == 0) {
+                        initializingEntries.remove(entry);
+                    }
+                }
+            });
+        }
+    }
+
+    private void scheduleInitConnections(final SubscribesConnectionEntry entry) {
+        if (getMinimumIdleSize(entry) == 0 || initializingEntries.contains(entry)) {
+            return;
+        }
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                initConnections(entry);
+            }
+        });
+    }
+
+    protected int getMinimumIdleSize(SubscribesConnectionEntry entry) {
+        return config.getSlaveConnectionMinimumIdleSize();
+    }
+
+    protected Queue<T> getIdleConnections(SubscribesConnectionEntry entry) {
+        return (Queue<T>) entry.getIdleConnections();
+    }
+
+    /**
+     * Closes connections which were idle longer than <code>idleConnectionTimeout</code>,
+     * but keeps at least minimum idle amount of them for each entry.
+     */
+    void evictIdleConnections() {
+        long currentTime = System.currentTimeMillis();
+        for (SubscribesConnectionEntry entry : entries) {
+            Queue<T> idleConnections = getIdleConnections(entry);
+            int surplus = idleConnections.size() - getMinimumIdleSize(entry);
+            for (T conn : idleConnections) {
+                if (surplus <= 0) {
+                    break;
+                }
+                if (currentTime - conn.getLastUsageTime() >= config.getIdleConnectionTimeout()
+                        // connection could be polled concurrently
+                        && idleConnections.remove(conn)) {
+                    evict(entry, conn);
+                    surplus--;
+                }
+            }
+        }
+    }
+
+    protected void evict(SubscribesConnectionEntry entry, T conn) {
+        evictedAmount.incrementAndGet();
+        log.debug("idle connection evicted: {}", conn);
+        conn.closeAsync();
+    }
+
+    public ConnectionPoolStats getStats() {
+        int idleAmount = 0;
+        for (SubscribesConnectionEntry entry : entries) {
+            idleAmount += getIdleConnections(entry).size();
+        }
+        return new ConnectionPoolStats(activeAmount.get(), idleAmount, waitersAmount.get(),
+                                        createdAmount.get(), evictedAmount.get());
+    }
+
     public void remove(SubscribesConnectionEntry entry) {
         entries.remove(entry);
     }
@@ -63,6 +237,11 @@ public class ConnectionPool<T extends RedisConnection> {
             SubscribesConnectionEntry entry;
             if (ConnectionPool.this.loadBalancer != null) {
                 entry = ConnectionPool.this.loadBalancer.getEntry(entries);
+                if (entry == null) {
+                    RedisConnectionException exception = new RedisConnectionException("No entry available for connection. "
+                                            + "All entries are freezed or have zero weight");
+                    return executor.newFailedFuture(exception);
+                }
             } else {
                 entry = entries.get(0);
             }
@@ -73,11 +252,71 @@ public class ConnectionPool<T extends RedisConnection> {
             }
         }
 
+        int queueSize = config.getConnectionWaitQueueSize();
+        if (queueSize > 0 && waitersAmount.get() >= queueSize) {
+            RedisConnectionException exception = new RedisConnectionException("Connection pool wait queue is full. "
+                                    + "Amount of waiting requests: " + waitersAmount.get());
+            return executor.newFailedFuture(exception);
+        }
+
         Promise<T> promise = executor.newPromise();
-        promises.add(promise);
+        long deadline = 0;
+        if (config.getConnectionWaitTimeout() > 0) {
+            deadline = System.currentTimeMillis() + config.getConnectionWaitTimeout();
+        }
+        addWaiter(new Waiter<T>(promise, deadline));
+
+        // connection could be released before waiter has been added
+        for (SubscribesConnectionEntry entry : entries) {
+            handleQueue(entry);
+        }
         return promise;
     }
 
+    /**
+     * Amount of requests waiting for a free connection
+     *
+     * @return
+     */
+    public int getWaitersAmount() {
+        return waitersAmount.get();
+    }
+
+    private void addWaiter(Waiter<T> waiter) {
+        waiters.add(waiter);
+        waitersAmount.incrementAndGet();
+    }
+
+    private Waiter<T> pollWaiter() {
+        while (true) {
+            Waiter<T> waiter = waiters.poll();
+            if (waiter == null) {
+                return null;
+            }
+            waitersAmount.decrementAndGet();
+            // skip cancelled and timed out requests
+            if (!waiter.promise.isDone()) {
+                return waiter;
+            }
+        }
+    }
+
+    void expireWaiters() {
+        long currentTime = System.currentTimeMillis();
+        for (Waiter<T> waiter : waiters) {
+            if (waiter.deadline > currentTime) {
+                // waiters are ordered by deadline
+                break;
+            }
+            if (waiters.remove(waiter)) {
+                waitersAmount.decrementAndGet();
+                RedisConnectionException exception = new RedisConnectionException("Can't acquire connection during "
+                                            + config.getConnectionWaitTimeout() + " ms");
+                waiter.promise.tryFailure(exception);
+            }
+        }
+    }
+
     public Future<T> get(SubscribesConnectionEntry entry) {
         if (!entry.isFreezed() && tryAcquireConnection(entry)) {
             Promise<T> promise = executor.newPromise();
@@ -104,13 +343,18 @@ public class ConnectionPool<T extends RedisConnection> {
     private void connect(final SubscribesConnectionEntry entry, final Promise<T> promise) {
         T conn = poll(entry);
         if (conn != null) {
+            activeAmount.incrementAndGet();
             if (!promise.trySuccess(conn)) {
+                activeAmount.decrementAndGet();
                 releaseConnection(entry, conn);
                 releaseConnection(entry);
             }
             return;
         }
 
+        // idle connections are exhausted, top them up in background
+        scheduleInitConnections(entry);
+
         Future<T> connFuture = connect(entry);
         connFuture.addListener(new FutureListener<T>() {
             @Override
@@ -120,8 +364,11 @@ public class ConnectionPool<T extends RedisConnection> {
                     promise.setFailure(future.cause());
                     return;
                 }
+                createdAmount.incrementAndGet();
                 T conn = future.getNow();
+                activeAmount.incrementAndGet();
                 if (!promise.trySuccess(conn)) {
+                    activeAmount.decrementAndGet();
                     releaseConnection(entry, conn);
                     releaseConnection(entry);
                 }
@@ -130,31 +377,42 @@ public class ConnectionPool<T extends RedisConnection> {
     }
 
     public void returnConnection(SubscribesConnectionEntry entry, T connection) {
+        activeAmount.decrementAndGet();
         if (entry.isFreezed()) {
             connection.closeAsync();
-        } else {
+        } else if (!connection.isClosed()) {
             if (connection.getFailAttempts() == config.getRefreshConnectionAfterFails()) {
                 connection.forceReconnect();
             }
             releaseConnection(entry, connection);
         }
+        // connection closed by its user isn't reused, but its slot is released
         releaseConnection(entry);
     }
 
     protected void releaseConnection(SubscribesConnectionEntry entry) {
-        entry.releaseConnection();
+        releaseAcquiredConnection(entry);
 
         handleQueue(entry);
     }
 
+    protected void releaseAcquiredConnection(SubscribesConnectionEntry entry) {
+        entry.releaseConnection();
+    }
+
     private void handleQueue(SubscribesConnectionEntry entry) {
-        Promise<T> promise = promises.poll();
-        if (promise != null) {
-            if (!entry.isFreezed() && tryAcquireConnection(entry)) {
-                connect(entry, promise);
-            } else {
-                promises.add(promise);
+        // serve waiters in order while there are free connections
+        while (waitersAmount.get() > 0) {
+            if (entry.isFreezed() || !tryAcquireConnection(entry)) {
+                return;
             }
+            Waiter<T> waiter = pollWaiter();
+            if (waiter == null) {
+                // waitersAmount could be ahead of queue, don't serve it again
+                releaseAcquiredConnection(entry);
+                return;
+            }
+            connect(entry, waiter.promise);
         }
     }
 
@@ -162,4 +420,26 @@ public class ConnectionPool<T extends RedisConnection> {
         entry.releaseConnection(conn);
     }
 
+    /**
+     * Stops periodic tasks of pool and fails requests
+     * waiting for connection, so pool and its entries
+     * could be garbage collected
+     */
+    public void shutdown() {
+        if (evictionFuture != null) {
+            evictionFuture.cancel(false);
+        }
+        if (waitersExpirationFuture != null) {
+            waitersExpirationFuture.cancel(false);
+        }
+
+        while (true) {
+            Waiter<T> waiter = pollWaiter();
+            if (waiter == null) {
+                break;
+            }
+            waiter.promise.tryFailure(new RedisConnectionException("Connection pool has been shut down"));
+        }
+    }
+
 }
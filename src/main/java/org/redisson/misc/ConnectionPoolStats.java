@@ -0,0 +1,94 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.misc;
+
+/**
+ * Snapshot of connection pool state
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class ConnectionPoolStats {
+
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int waiters;
+    private final long createdConnections;
+    private final long evictedConnections;
+
+    public ConnectionPoolStats(int activeConnections, int idleConnections, int waiters,
+                                long createdConnections, long evictedConnections) {
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.waiters = waiters;
+        this.createdConnections = createdConnections;
+        this.evictedConnections = evictedConnections;
+    }
+
+    /**
+     * Connections acquired from pool and not yet returned
+     *
+     * @return
+     */
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    /**
+     * Connections ready for use
+     *
+     * @return
+     */
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    /**
+     * Requests waiting for a connection
+     *
+     * @return
+     */
+    public int getWaiters() {
+        return waiters;
+    }
+
+    /**
+     * Total amount of connections created by pool.
+     * Difference between two snapshots gives connection creation rate.
+     *
+     * @return
+     */
+    public long getCreatedConnections() {
+        return createdConnections;
+    }
+
+    /**
+     * Total amount of connections closed due to idle timeout
+     *
+     * @return
+     */
+    public long getEvictedConnections() {
+        return evictedConnections;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolStats [activeConnections=" + activeConnections + ", idleConnections="
+                + idleConnections + ", waiters=" + waiters + ", createdConnections=" + createdConnections
+                + ", evictedConnections=" + evictedConnections + "]";
+    }
+
+}
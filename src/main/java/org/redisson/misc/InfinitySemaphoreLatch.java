@@ -16,66 +16,82 @@
 package org.redisson.misc;
 
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.AbstractQueuedSynchronizer;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
+ * Counts operations in progress and allows to wait till all of them
+ * are finished after closing.
+ *
+ * Counter is striped over cache lines by thread, so acquire and release
+ * made by different threads don't contend on the same memory.
+ * Sum of stripes is calculated only after closing.
  *
  * Code parts from Manik Surtani (<a href="mailto:manik@jboss.org">manik@jboss.org</a>)
  * @author Nikita Koksharov
  */
-public class InfinitySemaphoreLatch extends AbstractQueuedSynchronizer {
-
-    private static final long serialVersionUID = 1744280161777661090l;
+public class InfinitySemaphoreLatch {
 
-    volatile boolean closed;
-    AtomicInteger sharedResources = new AtomicInteger();
+    // amount of longs per stripe, 128 bytes to avoid false sharing
+    private static final int PADDING = 16;
 
-    // the following states are used in the AQS.
-    private static final int OPEN_STATE = 0;
+    private static final int STRIPES = stripesAmount();
 
-    public InfinitySemaphoreLatch() {
-        setState(OPEN_STATE);
+    private static int stripesAmount() {
+        int stripes = 1;
+        while (stripes < Runtime.getRuntime().availableProcessors() * 2) {
+            stripes <<= 1;
+        }
+        return stripes;
     }
 
-    @Override
-    public final int tryAcquireShared(int ignored) {
-        // return 1 if we allow the requestor to proceed, -1 if we want the
-        // requestor to block.
-        return getState() == OPEN_STATE ? 1 : -1;
-    }
+    private final AtomicLongArray counters = new AtomicLongArray(STRIPES * PADDING);
+    private volatile boolean closed;
 
-    @Override
-    public final boolean tryReleaseShared(int state) {
-        // used as a mechanism to set the state of the Sync.
-        setState(state);
-        return true;
+    private int index() {
+        return ((int) Thread.currentThread().getId() & (STRIPES - 1)) * PADDING;
     }
 
     public final boolean acquireAmount(int amount) {
         if (closed) {
             return false;
         }
-        releaseShared(sharedResources.addAndGet(amount));
+        int index = index();
+        counters.addAndGet(index, amount);
+        if (closed) {
+            // closing has been started concurrently and it may have missed this acquire
+            release(index, amount);
+            return false;
+        }
         return true;
     }
 
     public final boolean acquire() {
+        return acquireAmount(1);
+    }
+
+    public final void release() {
+        release(index(), 1);
+    }
+
+    private void release(int index, int amount) {
+        counters.addAndGet(index, -amount);
         if (closed) {
-            return false;
+            synchronized (this) {
+                notifyAll();
+            }
         }
-        releaseShared(sharedResources.incrementAndGet());
-        return true;
     }
 
-    public final void release() {
-        // do not use setState() directly since this won't notify parked
-        // threads.
-        releaseShared(sharedResources.decrementAndGet());
+    private long sum() {
+        long sum = 0;
+        for (int i = 0; i < counters.length(); i += PADDING) {
+            sum += counters.get(i);
+        }
+        return sum;
     }
 
     public boolean isOpened() {
-        return getState() == OPEN_STATE;
+        return sum() == 0;
     }
 
     // waiting for an open state
@@ -90,15 +106,22 @@ public class InfinitySemaphoreLatch extends AbstractQueuedSynchronizer {
     }
 
     private boolean await(long time, TimeUnit unit) throws InterruptedException {
-        return tryAcquireSharedNanos(1, unit.toNanos(time)); // the 1 is a dummy
-                                                             // value that is
-                                                             // not used.
+        long deadline = System.nanoTime() + unit.toNanos(time);
+        synchronized (this) {
+            while (sum() != 0) {
+                long remains = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remains <= 0) {
+                    return false;
+                }
+                wait(remains);
+            }
+        }
+        return true;
     }
 
     @Override
     public String toString() {
-        int s = getState();
-        String q = hasQueuedThreads() ? "non" : "";
-        return "ReclosableLatch [State = " + s + ", " + q + "empty queue]";
+        return "InfinitySemaphoreLatch [acquired = " + sum() + ", closed = " + closed + "]";
     }
+
 }
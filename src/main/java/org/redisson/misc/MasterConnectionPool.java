@@ -0,0 +1,43 @@
+/**
+ * Copyright 2014 Nikita Koksharov, Nickolay Borbit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.misc;
+
+import org.redisson.MasterSlaveServersConfig;
+import org.redisson.client.RedisConnection;
+import org.redisson.connection.LoadBalancer;
+import org.redisson.connection.SubscribesConnectionEntry;
+
+import io.netty.channel.EventLoopGroup;
+
+/**
+ * Connection pool for Redis 'master' server
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class MasterConnectionPool extends ConnectionPool<RedisConnection> {
+
+    public MasterConnectionPool(MasterSlaveServersConfig config,
+            LoadBalancer loadBalancer, EventLoopGroup eventLoopGroup) {
+        super(config, loadBalancer, eventLoopGroup);
+    }
+
+    @Override
+    protected int getMinimumIdleSize(SubscribesConnectionEntry entry) {
+        return config.getMasterConnectionMinimumIdleSize();
+    }
+
+}
@@ -15,6 +15,8 @@
  */
 package org.redisson.misc;
 
+import java.util.Queue;
+
 import org.redisson.MasterSlaveServersConfig;
 import org.redisson.client.RedisPubSubConnection;
 import org.redisson.connection.LoadBalancer;
@@ -40,13 +42,29 @@ public class PubSubConnectionPoll extends ConnectionPool<RedisPubSubConnection>
         return entry.connectPubSub(config);
     }
 
+    @Override
+    protected int getMinimumIdleSize(SubscribesConnectionEntry entry) {
+        return config.getSlaveSubscriptionConnectionMinimumIdleSize();
+    }
+
+    @Override
+    protected Queue<RedisPubSubConnection> getIdleConnections(SubscribesConnectionEntry entry) {
+        return entry.getIdleSubscribeConnections();
+    }
+
+    @Override
+    protected void evict(SubscribesConnectionEntry entry, RedisPubSubConnection conn) {
+        entry.getAllSubscribeConnections().remove(conn);
+        super.evict(entry, conn);
+    }
+
     @Override
     protected boolean tryAcquireConnection(SubscribesConnectionEntry entry) {
         return entry.tryAcquireSubscribeConnection();
     }
 
     @Override
-    protected void releaseConnection(SubscribesConnectionEntry entry) {
+    protected void releaseAcquiredConnection(SubscribesConnectionEntry entry) {
         entry.releaseSubscribeConnection();
     }
 
@@ -0,0 +1,31 @@
+package org.redisson;
+
+import java.io.UnsupportedEncodingException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.redisson.connection.CRC16;
+
+public class CRC16Test {
+
+    @Test
+    public void testKnownValue() {
+        // reference value from Redis cluster specification
+        Assert.assertEquals(0x31C3, CRC16.crc16("123456789", 0, 9));
+    }
+
+    @Test
+    public void testUtf8() throws UnsupportedEncodingException {
+        String[] keys = {"", "test", "\u043a\u043b\u044e\u0447", "\u00e9t\u00e9", "\u4e2d\u6587", "smile\ud83d\ude00", "broken\ud83d", "\ude00broken"};
+        for (String key : keys) {
+            Assert.assertEquals(key, CRC16.crc16(key.getBytes("UTF-8")), CRC16.crc16(key, 0, key.length()));
+        }
+    }
+
+    @Test
+    public void testRange() throws UnsupportedEncodingException {
+        String key = "{user1000}.following";
+        Assert.assertEquals(CRC16.crc16("user1000".getBytes("UTF-8")), CRC16.crc16(key, 1, 9));
+    }
+
+}
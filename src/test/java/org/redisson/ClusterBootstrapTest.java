@@ -0,0 +1,103 @@
+package org.redisson;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.redisson.connection.ClusterConnectionManager;
+import org.redisson.connection.ConnectionManager;
+
+/**
+ * Measures cluster startup time against a simulated multi-node topology.
+ * Every simulated node answers with a fixed delay, so sequential bootstrap
+ * takes at least <code>nodes * delay</code>.
+ */
+public class ClusterBootstrapTest {
+
+    private static final int NODES = 20;
+    private static final long DELAY = 100;
+
+    private final List<FakeClusterNode> nodes = new ArrayList<FakeClusterNode>();
+
+    @Before
+    public void before() throws IOException {
+        for (int i = 0; i < NODES; i++) {
+            nodes.add(new FakeClusterNode("node" + i, DELAY));
+        }
+
+        StringBuilder topology = new StringBuilder();
+        int slotsPerNode = 16384 / NODES;
+        for (int i = 0; i < NODES; i++) {
+            int start = i * slotsPerNode;
+            int end = i == NODES - 1 ? 16383 : start + slotsPerNode - 1;
+            topology.append("node").append(i).append(" 127.0.0.1:").append(nodes.get(i).getPort())
+                    .append(" master - 0 0 ").append(i + 1).append(" connected ").append(start).append("-").append(end).append("\n");
+        }
+        for (FakeClusterNode node : nodes) {
+            node.setTopology(topology.toString().trim());
+            node.start();
+        }
+    }
+
+    @After
+    public void after() throws IOException {
+        for (FakeClusterNode node : nodes) {
+            node.close();
+        }
+    }
+
+    @Test
+    public void testParallelBootstrap() {
+        Config config = new Config();
+        ClusterServersConfig clusterConfig = config.useClusterServers()
+                .setTimeout(5000)
+                .setMasterConnectionMinimumIdleSize(0)
+                .setSlaveConnectionMinimumIdleSize(0)
+                .setSlaveSubscriptionConnectionMinimumIdleSize(0);
+        for (FakeClusterNode node : nodes) {
+            clusterConfig.addNodeAddress("127.0.0.1:" + node.getPort());
+        }
+
+        long startTime = System.currentTimeMillis();
+        ConnectionManager connectionManager = new ClusterConnectionManager(config.getClusterServersConfig(), config);
+        long time = System.currentTimeMillis() - startTime;
+        try {
+            Assert.assertEquals(NODES, connectionManager.getEntryList().size());
+            Assert.assertTrue("startup took " + time + " ms", time < NODES * DELAY / 2);
+        } finally {
+            connectionManager.shutdown();
+        }
+    }
+
+    @Test
+    public void testStartupDeadline() throws IOException {
+        // nodes which accept connections but never reply
+        List<ServerSocket> silentNodes = new ArrayList<ServerSocket>();
+        Config config = new Config();
+        ClusterServersConfig clusterConfig = config.useClusterServers().setTimeout(500);
+        for (int i = 0; i < 5; i++) {
+            ServerSocket socket = new ServerSocket(0);
+            silentNodes.add(socket);
+            clusterConfig.addNodeAddress("127.0.0.1:" + socket.getLocalPort());
+        }
+
+        long startTime = System.currentTimeMillis();
+        ConnectionManager connectionManager = new ClusterConnectionManager(config.getClusterServersConfig(), config);
+        long time = System.currentTimeMillis() - startTime;
+        try {
+            Assert.assertTrue(connectionManager.getEntryList().isEmpty());
+            Assert.assertTrue("startup took " + time + " ms", time < 2 * 500 + 500);
+        } finally {
+            connectionManager.shutdown();
+            for (ServerSocket socket : silentNodes) {
+                socket.close();
+            }
+        }
+    }
+
+}
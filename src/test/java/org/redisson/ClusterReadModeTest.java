@@ -0,0 +1,95 @@
+package org.redisson;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.connection.ClusterConnectionManager;
+
+/**
+ * Checks that reads of each partition are served by its own nodes
+ * on simulated cluster of two partitions with one slave each.
+ */
+public class ClusterReadModeTest {
+
+    private final List<FakeClusterNode> nodes = new ArrayList<FakeClusterNode>();
+
+    @Before
+    public void before() throws IOException {
+        for (String name : new String[] {"master0", "slave0", "master1", "slave1"}) {
+            nodes.add(new FakeClusterNode(name, 0));
+        }
+
+        String topology = "master0 127.0.0.1:" + nodes.get(0).getPort() + " master - 0 0 1 connected 0-8191\n"
+                        + "slave0 127.0.0.1:" + nodes.get(1).getPort() + " slave master0 0 0 1 connected\n"
+                        + "master1 127.0.0.1:" + nodes.get(2).getPort() + " master - 0 0 2 connected 8192-16383\n"
+                        + "slave1 127.0.0.1:" + nodes.get(3).getPort() + " slave master1 0 0 2 connected";
+        for (FakeClusterNode node : nodes) {
+            node.setTopology(topology);
+            node.start();
+        }
+    }
+
+    @After
+    public void after() throws IOException {
+        for (FakeClusterNode node : nodes) {
+            node.close();
+        }
+    }
+
+    @Test
+    public void testSlaveReadMode() {
+        Set<String> partition0 = read(ReadMode.SLAVE, 0);
+        Assert.assertEquals(new HashSet<String>(Arrays.asList("slave0")), partition0);
+
+        Set<String> partition1 = read(ReadMode.SLAVE, 1);
+        Assert.assertEquals(new HashSet<String>(Arrays.asList("slave1")), partition1);
+    }
+
+    @Test
+    public void testMasterSlaveReadMode() {
+        Set<String> partition0 = read(ReadMode.MASTER_SLAVE, 0);
+        Assert.assertEquals(new HashSet<String>(Arrays.asList("master0", "slave0")), partition0);
+
+        Set<String> partition1 = read(ReadMode.MASTER_SLAVE, 1);
+        Assert.assertEquals(new HashSet<String>(Arrays.asList("master1", "slave1")), partition1);
+    }
+
+    /**
+     * Reads keys of partition and returns names of nodes which have served them
+     */
+    private Set<String> read(ReadMode readMode, int partition) {
+        Config config = new Config();
+        config.useClusterServers()
+                .setReadMode(readMode)
+                .addNodeAddress("127.0.0.1:" + nodes.get(0).getPort());
+
+        ClusterConnectionManager connectionManager = new ClusterConnectionManager(config.getClusterServersConfig(), config);
+        try {
+            CommandExecutorService executor = new CommandExecutorService(connectionManager);
+            Set<String> servedBy = new HashSet<String>();
+            for (int i = 0, found = 0; found < 20; i++) {
+                String key = "key" + i;
+                if (connectionManager.calcSlot(key) / 8192 != partition) {
+                    continue;
+                }
+                found++;
+                Object value = executor.read(key, StringCodec.INSTANCE, RedisCommands.GET, key);
+                servedBy.add((String) value);
+            }
+            return servedBy;
+        } finally {
+            connectionManager.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,282 @@
+package org.redisson;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.redisson.client.RedisAskException;
+import org.redisson.client.RedisMovedException;
+import org.redisson.client.RedisTimeoutException;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.handler.CommandDecoder;
+import org.redisson.client.handler.CommandsQueue;
+import org.redisson.client.handler.State;
+import org.redisson.client.protocol.CommandData;
+import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.RedisCommand;
+import org.redisson.client.protocol.RedisCommand.ValueType;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.client.protocol.decoder.LazyMapValueReplayDecoder;
+import org.redisson.client.protocol.decoder.LazyValue;
+import org.redisson.client.protocol.decoder.MapScanResult;
+import org.redisson.client.protocol.decoder.MapScanResultReplayDecoder;
+import org.redisson.client.protocol.decoder.NestedMultiDecoder;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.CharsetUtil;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import io.netty.util.concurrent.Promise;
+
+public class CommandDecoderTest {
+
+    private EmbeddedChannel createChannel() {
+        return new EmbeddedChannel(new CommandsQueue(), new CommandDecoder());
+    }
+
+    private void writeInChunks(EmbeddedChannel channel, String reply, int chunkSize) {
+        byte[] bytes = reply.getBytes(CharsetUtil.UTF_8);
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            ByteBuf buf = Unpooled.copiedBuffer(bytes, i, Math.min(chunkSize, bytes.length - i));
+            channel.writeInbound(buf);
+        }
+    }
+
+    @Test
+    public void testLargeReplyInChunks() {
+        EmbeddedChannel channel = createChannel();
+
+        Promise<List<Object>> promise = ImmediateEventExecutor.INSTANCE.newPromise();
+        channel.writeAndFlush(new CommandData<List<Object>, List<Object>>(promise, StringCodec.INSTANCE, RedisCommands.LRANGE, new Object[] {"list", 0, -1}));
+
+        int size = 200000;
+        StringBuilder reply = new StringBuilder();
+        reply.append("*").append(size).append("\r\n");
+        for (int i = 0; i < size; i++) {
+            String value = "value" + i;
+            reply.append("$").append(value.length()).append("\r\n").append(value).append("\r\n");
+        }
+
+        writeInChunks(channel, reply.toString(), 1460);
+
+        Assert.assertTrue(promise.isSuccess());
+        List<Object> result = promise.getNow();
+        Assert.assertEquals(size, result.size());
+        for (int i = 0; i < size; i++) {
+            Assert.assertEquals("value" + i, result.get(i));
+        }
+    }
+
+    @Test
+    public void testMapReplyByteByByte() {
+        EmbeddedChannel channel = createChannel();
+
+        Promise<Map<Object, Object>> promise = ImmediateEventExecutor.INSTANCE.newPromise();
+        channel.writeAndFlush(new CommandData<Map<Object, Object>, Map<Object, Object>>(promise, StringCodec.INSTANCE, RedisCommands.HGETALL, new Object[] {"map"}));
+
+        writeInChunks(channel, "*4\r\n$2\r\nk1\r\n$2\r\nv1\r\n$2\r\nk2\r\n$-1\r\n", 1);
+
+        Assert.assertTrue(promise.isSuccess());
+        Map<Object, Object> result = promise.getNow();
+        Assert.assertEquals(2, result.size());
+        Assert.assertEquals("v1", result.get("k1"));
+        Assert.assertNull(result.get("k2"));
+    }
+
+    @Test
+    public void testLazyMapValues() {
+        EmbeddedChannel channel = createChannel();
+
+        Promise<Map<Object, LazyValue<Object>>> promise = ImmediateEventExecutor.INSTANCE.newPromise();
+        RedisCommand<Map<Object, LazyValue<Object>>> command = new RedisCommand<Map<Object, LazyValue<Object>>>("HGETALL",
+                new LazyMapValueReplayDecoder(StringCodec.INSTANCE.getMapValueDecoder()), ValueType.MAP);
+        channel.writeAndFlush(new CommandData<Map<Object, LazyValue<Object>>, Map<Object, LazyValue<Object>>>(promise, StringCodec.INSTANCE, command, new Object[] {"map"}));
+
+        writeInChunks(channel, "*4\r\n$2\r\nk1\r\n$6\r\nvalue1\r\n$2\r\nk2\r\n$6\r\nvalue2\r\n", 7);
+
+        Assert.assertTrue(promise.isSuccess());
+        Map<Object, LazyValue<Object>> result = promise.getNow();
+        Assert.assertEquals(2, result.size());
+        LazyValue<Object> value1 = result.get("k1");
+        LazyValue<Object> value2 = result.get("k2");
+        Assert.assertFalse(value1.isDecoded());
+        Assert.assertEquals("value1", value1.get());
+        Assert.assertTrue(value1.isDecoded());
+        Assert.assertEquals("value1", value1.get());
+        Assert.assertFalse(value2.isDecoded());
+        value2.release();
+    }
+
+    @Test
+    public void testSkippedLazyValuesReleased() {
+        EmbeddedChannel channel = createChannel();
+
+        Promise<MapScanResult<Object, LazyValue<Object>>> promise = ImmediateEventExecutor.INSTANCE.newPromise();
+        RedisCommand<MapScanResult<Object, LazyValue<Object>>> command = new RedisCommand<MapScanResult<Object, LazyValue<Object>>>("HSCAN",
+                new NestedMultiDecoder(new LazyMapValueReplayDecoder(StringCodec.INSTANCE.getMapValueDecoder()), new MapScanResultReplayDecoder()), ValueType.MAP);
+        channel.writeAndFlush(new CommandData<MapScanResult<Object, LazyValue<Object>>, MapScanResult<Object, LazyValue<Object>>>(promise, StringCodec.INSTANCE, command, new Object[] {"map", 0}));
+
+        // attempt has been timed out before reply is received
+        promise.tryFailure(new RedisTimeoutException());
+
+        ByteBuf reply = Unpooled.copiedBuffer("*2\r\n$1\r\n0\r\n*4\r\n$2\r\nk1\r\n$6\r\nvalue1\r\n$2\r\nk2\r\n$6\r\nvalue2\r\n", CharsetUtil.UTF_8);
+        channel.writeInbound(reply);
+
+        Assert.assertEquals(0, reply.refCnt());
+    }
+
+    @Test
+    public void testDecodeExecutor() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        EmbeddedChannel channel = new EmbeddedChannel(new CommandsQueue(), new CommandDecoder(executor));
+
+        final List<Integer> completed = Collections.synchronizedList(new ArrayList<Integer>());
+        List<Promise<Object>> promises = new ArrayList<Promise<Object>>();
+        for (int i = 0; i < 50; i++) {
+            Promise<Object> promise = ImmediateEventExecutor.INSTANCE.newPromise();
+            final int index = i;
+            promise.addListener(new FutureListener<Object>() {
+                @Override
+                public void operationComplete(Future<Object> future) throws Exception {
+                    completed.add(index);
+                }
+            });
+            if (i % 2 == 0) {
+                channel.writeAndFlush(new CommandData<Object, Object>(promise, StringCodec.INSTANCE, RedisCommands.GET, new Object[] {"key" + i}));
+            } else {
+                channel.writeAndFlush(new CommandData<Object, Object>(promise, StringCodec.INSTANCE, (RedisCommand)RedisCommands.LRANGE, new Object[] {"list" + i, 0, -1}));
+            }
+            promises.add(promise);
+        }
+
+        StringBuilder reply = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            if (i % 2 == 0) {
+                reply.append("$6\r\nvalue").append(i % 10).append("\r\n");
+            } else {
+                reply.append("*3\r\n$1\r\na\r\n*0\r\n$-1\r\n");
+            }
+        }
+        writeInChunks(channel, reply.toString(), 3);
+
+        for (Promise<Object> promise : promises) {
+            Assert.assertTrue(promise.await(5, TimeUnit.SECONDS));
+            Assert.assertTrue(promise.isSuccess());
+        }
+        Assert.assertEquals("value2", promises.get(2).getNow());
+        Assert.assertEquals(Arrays.asList("a", Collections.emptyList(), null), promises.get(1).getNow());
+        for (int i = 0; i < 50; i++) {
+            Assert.assertEquals(i, (int) completed.get(i));
+        }
+        Assert.assertEquals(0, channel.pipeline().get(CommandsQueue.class).size());
+
+        executor.shutdown();
+    }
+
+    @Test
+    public void testDecodeExecutorEmptyBulkString() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        EmbeddedChannel channel = new EmbeddedChannel(new CommandsQueue(), new CommandDecoder(executor));
+
+        Promise<Object> empty = ImmediateEventExecutor.INSTANCE.newPromise();
+        channel.writeAndFlush(new CommandData<Object, Object>(empty, StringCodec.INSTANCE, RedisCommands.GET, new Object[] {"key1"}));
+        Promise<Object> value = ImmediateEventExecutor.INSTANCE.newPromise();
+        channel.writeAndFlush(new CommandData<Object, Object>(value, StringCodec.INSTANCE, RedisCommands.GET, new Object[] {"key2"}));
+
+        channel.writeInbound(Unpooled.copiedBuffer("$0\r\n\r\n$3\r\nfoo\r\n", CharsetUtil.UTF_8));
+
+        Assert.assertTrue(empty.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals("", empty.getNow());
+        Assert.assertTrue(value.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals("foo", value.getNow());
+
+        executor.shutdown();
+    }
+
+    @Test
+    public void testDecodeExecutorFailure() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        EmbeddedChannel channel = new EmbeddedChannel(new CommandsQueue(), new CommandDecoder(executor));
+
+        RedisCommand<Object> command = new RedisCommand<Object>("GET", new Decoder<Object>() {
+            @Override
+            public Object decode(ByteBuf buf, State state) {
+                throw new IllegalStateException("broken value");
+            }
+        });
+        Promise<Object> broken = ImmediateEventExecutor.INSTANCE.newPromise();
+        channel.writeAndFlush(new CommandData<Object, Object>(broken, StringCodec.INSTANCE, command, new Object[] {"key1"}));
+        Promise<Object> value = ImmediateEventExecutor.INSTANCE.newPromise();
+        channel.writeAndFlush(new CommandData<Object, Object>(value, StringCodec.INSTANCE, RedisCommands.GET, new Object[] {"key2"}));
+
+        channel.writeInbound(Unpooled.copiedBuffer("$3\r\nbar\r\n$3\r\nfoo\r\n", CharsetUtil.UTF_8));
+
+        Assert.assertTrue(broken.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(broken.cause() instanceof IllegalStateException);
+        Assert.assertTrue(value.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals("foo", value.getNow());
+
+        executor.shutdown();
+    }
+
+    @Test
+    public void testSimpleReplies() {
+        EmbeddedChannel channel = createChannel();
+
+        Promise<String> pong = ImmediateEventExecutor.INSTANCE.newPromise();
+        channel.writeAndFlush(new CommandData<String, String>(pong, StringCodec.INSTANCE, RedisCommands.PING, new Object[] {}));
+        Promise<Long> counter = ImmediateEventExecutor.INSTANCE.newPromise();
+        channel.writeAndFlush(new CommandData<Long, Long>(counter, StringCodec.INSTANCE, RedisCommands.INCR, new Object[] {"counter"}));
+        Promise<Long> negative = ImmediateEventExecutor.INSTANCE.newPromise();
+        channel.writeAndFlush(new CommandData<Long, Long>(negative, StringCodec.INSTANCE, RedisCommands.INCR, new Object[] {"counter"}));
+        Promise<Object> moved = ImmediateEventExecutor.INSTANCE.newPromise();
+        channel.writeAndFlush(new CommandData<Object, Object>(moved, StringCodec.INSTANCE, RedisCommands.GET, new Object[] {"key"}));
+        Promise<Object> ask = ImmediateEventExecutor.INSTANCE.newPromise();
+        channel.writeAndFlush(new CommandData<Object, Object>(ask, StringCodec.INSTANCE, RedisCommands.GET, new Object[] {"key"}));
+        Promise<Object> error = ImmediateEventExecutor.INSTANCE.newPromise();
+        channel.writeAndFlush(new CommandData<Object, Object>(error, StringCodec.INSTANCE, RedisCommands.GET, new Object[] {"key"}));
+
+        writeInChunks(channel, "+PONG\r\n:1234567\r\n:-15\r\n-MOVED 3999 127.0.0.1:6381\r\n-ASK 3999 127.0.0.1:6382\r\n-ERR unknown\r\n", 4);
+
+        Assert.assertSame("PONG", pong.getNow());
+        Assert.assertEquals(1234567L, (long) counter.getNow());
+        Assert.assertEquals(-15L, (long) negative.getNow());
+        Assert.assertEquals(3999, ((RedisMovedException) moved.cause()).getSlot());
+        Assert.assertEquals(URI.create("//127.0.0.1:6381"), ((RedisMovedException) moved.cause()).getUrl());
+        Assert.assertEquals(3999, ((RedisAskException) ask.cause()).getSlot());
+        Assert.assertEquals(URI.create("//127.0.0.1:6382"), ((RedisAskException) ask.cause()).getUrl());
+        Assert.assertTrue(error.cause().getMessage().startsWith("ERR unknown"));
+    }
+
+    @Test
+    public void testPipelinedReplies() {
+        EmbeddedChannel channel = createChannel();
+
+        List<Promise<Object>> promises = new ArrayList<Promise<Object>>();
+        for (int i = 0; i < 3; i++) {
+            Promise<Object> promise = ImmediateEventExecutor.INSTANCE.newPromise();
+            channel.writeAndFlush(new CommandData<Object, Object>(promise, StringCodec.INSTANCE, RedisCommands.GET, new Object[] {"key" + i}));
+            promises.add(promise);
+        }
+
+        writeInChunks(channel, "$6\r\nvalue0\r\n$-1\r\n-ERR some error\r\n", 5);
+
+        Assert.assertEquals("value0", promises.get(0).getNow());
+        Assert.assertTrue(promises.get(1).isSuccess());
+        Assert.assertNull(promises.get(1).getNow());
+        Assert.assertFalse(promises.get(2).isSuccess());
+        Assert.assertEquals(0, channel.pipeline().get(CommandsQueue.class).size());
+    }
+
+}
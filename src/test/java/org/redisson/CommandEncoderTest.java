@@ -0,0 +1,104 @@
+package org.redisson;
+
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.handler.CommandEncoder;
+import org.redisson.client.protocol.CommandData;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.client.protocol.Utf8Writer;
+import org.redisson.codec.JsonJacksonCodec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.CharsetUtil;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+
+public class CommandEncoderTest {
+
+    private String encode(CommandData<?, ?> data) {
+        EmbeddedChannel channel = new EmbeddedChannel(new CommandEncoder());
+        channel.writeOutbound(data);
+        ByteBuf buf = (ByteBuf) channel.readOutbound();
+        String result = buf.toString(CharsetUtil.UTF_8);
+        buf.release();
+        return result;
+    }
+
+    @Test
+    public void testCommand() {
+        String result = encode(new CommandData<Void, Void>(ImmediateEventExecutor.INSTANCE.<Void>newPromise(),
+                StringCodec.INSTANCE, RedisCommands.SET, new Object[] {"key", "évalue"}));
+        Assert.assertEquals("*3\r\n$3\r\nSET\r\n$3\r\nkey\r\n$7\r\névalue\r\n", result);
+    }
+
+    @Test
+    public void testSubCommand() {
+        String result = encode(new CommandData<Boolean, Boolean>(ImmediateEventExecutor.INSTANCE.<Boolean>newPromise(),
+                StringCodec.INSTANCE, RedisCommands.CLIENT_SETNAME, new Object[] {"name"}));
+        Assert.assertEquals("*3\r\n$6\r\nCLIENT\r\n$7\r\nSETNAME\r\n$4\r\nname\r\n", result);
+    }
+
+    @Test
+    public void testLengths() {
+        for (int length : new int[] {0, 9, 10, 1023, 1024, 123456}) {
+            StringBuilder value = new StringBuilder();
+            for (int i = 0; i < length; i++) {
+                value.append('a');
+            }
+            String result = encode(new CommandData<Void, Void>(ImmediateEventExecutor.INSTANCE.<Void>newPromise(),
+                    StringCodec.INSTANCE, RedisCommands.SET, new Object[] {"key", value}));
+            Assert.assertEquals("*3\r\n$3\r\nSET\r\n$3\r\nkey\r\n$" + length + "\r\n" + value + "\r\n", result);
+        }
+    }
+
+    @Test
+    public void testEncodedFrame() throws IOException {
+        CommandData<Void, Void> data = new CommandData<Void, Void>(ImmediateEventExecutor.INSTANCE.<Void>newPromise(),
+                StringCodec.INSTANCE, RedisCommands.SET, new Object[] {"key", "value"});
+        ByteBuf frame = new CommandEncoder().encode(PooledByteBufAllocator.DEFAULT, data);
+
+        String result = encode(new CommandData<Void, Void>(ImmediateEventExecutor.INSTANCE.<Void>newPromise(),
+                null, StringCodec.INSTANCE, RedisCommands.SET, new Object[] {"key", "value"}, frame));
+        Assert.assertEquals("*3\r\n$3\r\nSET\r\n$3\r\nkey\r\n$5\r\nvalue\r\n", result);
+        // frame is written as is and released after write
+        Assert.assertEquals(0, frame.refCnt());
+    }
+
+    @Test
+    public void testStringArgumentsFrame() throws IOException {
+        CommandData<Void, Void> data = new CommandData<Void, Void>(ImmediateEventExecutor.INSTANCE.<Void>newPromise(),
+                StringCodec.INSTANCE, RedisCommands.SET, new Object[] {"key", "\u4e2dvalue"});
+        ByteBuf frame = new CommandEncoder().encode(PooledByteBufAllocator.DEFAULT, data);
+        // header of string argument is written in place
+        Assert.assertFalse(frame instanceof CompositeByteBuf);
+        Assert.assertEquals("*3\r\n$3\r\nSET\r\n$3\r\nkey\r\n$8\r\n\u4e2dvalue\r\n", frame.toString(CharsetUtil.UTF_8));
+        frame.release();
+    }
+
+    @Test
+    public void testOpaqueArgument() {
+        String result = encode(new CommandData<Void, Void>(ImmediateEventExecutor.INSTANCE.<Void>newPromise(),
+                new JsonJacksonCodec(), RedisCommands.SET, new Object[] {"key", "value"}));
+        Assert.assertEquals("*3\r\n$3\r\nSET\r\n$3\r\nkey\r\n$7\r\n\"value\"\r\n", result);
+    }
+
+    @Test
+    public void testSurrogatePairs() {
+        String value = "a\ud83d\ude00b\u4e2d\u00e9\ud83d";
+        for (ByteBuf buf : new ByteBuf[] {Unpooled.buffer(), PooledByteBufAllocator.DEFAULT.directBuffer()}) {
+            Assert.assertEquals(value.getBytes(CharsetUtil.UTF_8).length, Utf8Writer.length(value));
+            Utf8Writer.write(buf, value);
+            byte[] bytes = new byte[buf.readableBytes()];
+            buf.readBytes(bytes);
+            buf.release();
+            Assert.assertArrayEquals(value.getBytes(CharsetUtil.UTF_8), bytes);
+        }
+    }
+
+}
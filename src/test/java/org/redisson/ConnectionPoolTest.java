@@ -0,0 +1,181 @@
+package org.redisson;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.redisson.client.RedisConnection;
+import org.redisson.client.RedisConnectionException;
+import org.redisson.connection.MasterSlaveEntry;
+import org.redisson.connection.SingleConnectionManager;
+import org.redisson.misc.ConnectionPoolStats;
+
+import io.netty.util.concurrent.Future;
+
+public class ConnectionPoolTest {
+
+    @Test
+    public void testIdleConnectionEviction() throws InterruptedException {
+        Config config = new Config();
+        config.useSingleServer().setAddress("127.0.0.1:6379")
+                .setConnectionPoolSize(20)
+                .setConnectionMinimumIdleSize(2)
+                .setIdleConnectionTimeout(300);
+        SingleConnectionManager connectionManager = new SingleConnectionManager(config.getSingleServerConfig(), config);
+        MasterSlaveEntry<?> entry = connectionManager.getEntries().firstEntry().getValue();
+
+        List<RedisConnection> connections = new ArrayList<RedisConnection>();
+        for (int i = 0; i < 10; i++) {
+            connections.add(entry.connectionWriteOp().syncUninterruptibly().getNow());
+        }
+
+        ConnectionPoolStats stats = entry.getWriteConnectionPoolStats();
+        Assert.assertEquals(10, stats.getActiveConnections());
+        Assert.assertEquals(0, stats.getWaiters());
+        Assert.assertTrue(stats.getCreatedConnections() >= 10);
+
+        for (RedisConnection connection : connections) {
+            entry.releaseWrite(connection);
+        }
+        stats = entry.getWriteConnectionPoolStats();
+        Assert.assertEquals(0, stats.getActiveConnections());
+        Assert.assertTrue(stats.getIdleConnections() >= 10);
+
+        for (int i = 0; i < 30 && entry.getWriteConnectionPoolStats().getIdleConnections() > 2; i++) {
+            Thread.sleep(100);
+        }
+
+        // shrinks down to minimum idle size
+        stats = entry.getWriteConnectionPoolStats();
+        Assert.assertEquals(2, stats.getIdleConnections());
+        Assert.assertTrue(stats.getEvictedConnections() >= 8);
+
+        RedisConnection connection = entry.connectionWriteOp().syncUninterruptibly().getNow();
+        Assert.assertEquals("PONG", connection.sync(RedisConnection.PING));
+        entry.releaseWrite(connection);
+
+        connectionManager.shutdown();
+    }
+
+    @Test
+    public void testWaitQueueSize() {
+        Config config = new Config();
+        config.useSingleServer().setAddress("127.0.0.1:6379")
+                .setConnectionPoolSize(2)
+                .setConnectionWaitQueueSize(3);
+        SingleConnectionManager connectionManager = new SingleConnectionManager(config.getSingleServerConfig(), config);
+        MasterSlaveEntry<?> entry = connectionManager.getEntries().firstEntry().getValue();
+
+        RedisConnection connection1 = entry.connectionWriteOp().syncUninterruptibly().getNow();
+        RedisConnection connection2 = entry.connectionWriteOp().syncUninterruptibly().getNow();
+
+        List<Future<RedisConnection>> waiters = new ArrayList<Future<RedisConnection>>();
+        for (int i = 0; i < 3; i++) {
+            waiters.add(entry.connectionWriteOp());
+        }
+        Assert.assertEquals(3, entry.getWriteConnectionPoolStats().getWaiters());
+
+        Future<RedisConnection> rejected = entry.connectionWriteOp();
+        Assert.assertTrue(rejected.isDone());
+        Assert.assertTrue(rejected.cause() instanceof RedisConnectionException);
+
+        entry.releaseWrite(connection1);
+        entry.releaseWrite(connection2);
+        Assert.assertEquals(1, entry.getWriteConnectionPoolStats().getWaiters());
+
+        RedisConnection connection = waiters.get(0).syncUninterruptibly().getNow();
+        entry.releaseWrite(connection);
+        for (Future<RedisConnection> future : waiters.subList(1, waiters.size())) {
+            entry.releaseWrite(future.syncUninterruptibly().getNow());
+        }
+        Assert.assertEquals(0, entry.getWriteConnectionPoolStats().getWaiters());
+        Assert.assertEquals(0, entry.getWriteConnectionPoolStats().getActiveConnections());
+
+        connectionManager.shutdown();
+    }
+
+    @Test
+    public void testWaitTimeout() throws InterruptedException {
+        Config config = new Config();
+        config.useSingleServer().setAddress("127.0.0.1:6379")
+                .setConnectionPoolSize(1)
+                .setConnectionWaitTimeout(200);
+        SingleConnectionManager connectionManager = new SingleConnectionManager(config.getSingleServerConfig(), config);
+        MasterSlaveEntry<?> entry = connectionManager.getEntries().firstEntry().getValue();
+
+        RedisConnection connection = entry.connectionWriteOp().syncUninterruptibly().getNow();
+
+        long startTime = System.currentTimeMillis();
+        Future<RedisConnection> future = entry.connectionWriteOp();
+        Assert.assertTrue(future.await(2, TimeUnit.SECONDS));
+        Assert.assertTrue(future.cause() instanceof RedisConnectionException);
+        Assert.assertTrue(System.currentTimeMillis() - startTime >= 200);
+        Assert.assertEquals(0, entry.getWriteConnectionPoolStats().getWaiters());
+
+        entry.releaseWrite(connection);
+        Assert.assertEquals(1, entry.getWriteConnectionPoolStats().getIdleConnections());
+
+        connectionManager.shutdown();
+    }
+
+    @Test
+    public void testConcurrentWaiters() throws InterruptedException {
+        Config config = new Config();
+        config.useSingleServer().setAddress("127.0.0.1:6379")
+                .setConnectionPoolSize(2);
+        SingleConnectionManager connectionManager = new SingleConnectionManager(config.getSingleServerConfig(), config);
+        final MasterSlaveEntry<?> entry = connectionManager.getEntries().firstEntry().getValue();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 2000; j++) {
+                        Future<RedisConnection> future = entry.connectionWriteOp();
+                        // cancelled waiters are skipped by pool
+                        if (j % 3 == 0 && future.cancel(false)) {
+                            continue;
+                        }
+                        entry.releaseWrite(future.syncUninterruptibly().getNow());
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        Assert.assertEquals(0, entry.getWriteConnectionPoolStats().getWaiters());
+        Assert.assertEquals(0, entry.getWriteConnectionPoolStats().getActiveConnections());
+        RedisConnection connection = entry.connectionWriteOp().syncUninterruptibly().getNow();
+        Assert.assertEquals("PONG", connection.sync(RedisConnection.PING));
+        entry.releaseWrite(connection);
+
+        connectionManager.shutdown();
+    }
+
+    @Test
+    public void testShutdownFailsWaiters() {
+        Config config = new Config();
+        config.useSingleServer().setAddress("127.0.0.1:6379")
+                .setConnectionPoolSize(1);
+        SingleConnectionManager connectionManager = new SingleConnectionManager(config.getSingleServerConfig(), config);
+        MasterSlaveEntry<?> entry = connectionManager.getEntries().firstEntry().getValue();
+
+        entry.connectionWriteOp().syncUninterruptibly();
+        Future<RedisConnection> waiter = entry.connectionWriteOp();
+        Assert.assertFalse(waiter.isDone());
+
+        entry.shutdownMasterAsync();
+        Assert.assertTrue(waiter.awaitUninterruptibly(1, TimeUnit.SECONDS));
+        Assert.assertTrue(waiter.cause() instanceof RedisConnectionException);
+        Assert.assertEquals(0, entry.getWriteConnectionPoolStats().getWaiters());
+
+        connectionManager.shutdown();
+    }
+
+}
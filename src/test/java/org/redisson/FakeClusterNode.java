@@ -0,0 +1,113 @@
+package org.redisson;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Simulated cluster node which answers with a fixed delay.
+ * Replies to <code>GET</code> with its own name, so test could check
+ * which node has served a read.
+ */
+public class FakeClusterNode extends Thread {
+
+    private final ServerSocket serverSocket;
+    private final String name;
+    private final long delay;
+    private final List<Socket> sockets = new ArrayList<Socket>();
+    private volatile String topology;
+
+    FakeClusterNode(String name, long delay) throws IOException {
+        this.name = name;
+        this.delay = delay;
+        this.serverSocket = new ServerSocket(0);
+        setDaemon(true);
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    void setTopology(String topology) {
+        this.topology = topology;
+    }
+
+    @Override
+    public void run() {
+        while (!serverSocket.isClosed()) {
+            try {
+                final Socket socket = serverSocket.accept();
+                synchronized (sockets) {
+                    sockets.add(socket);
+                }
+                Thread handler = new Thread() {
+                    @Override
+                    public void run() {
+                        handle(socket);
+                    }
+                };
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
+            OutputStream out = socket.getOutputStream();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith("*")) {
+                    continue;
+                }
+                int size = Integer.valueOf(line.substring(1));
+                StringBuilder command = new StringBuilder();
+                for (int i = 0; i < size; i++) {
+                    reader.readLine();
+                    command.append(reader.readLine().toUpperCase()).append(" ");
+                }
+
+                Thread.sleep(delay);
+
+                String cmd = command.toString().trim();
+                String reply;
+                if (cmd.equals("CLUSTER NODES")) {
+                    reply = bulk(topology);
+                } else if (cmd.equals("CLUSTER INFO")) {
+                    reply = bulk("cluster_state:ok\r\ncluster_slots_assigned:16384");
+                } else if (cmd.startsWith("GET ")) {
+                    reply = bulk(name);
+                } else if (cmd.equals("PING")) {
+                    reply = "+PONG\r\n";
+                } else {
+                    reply = "+OK\r\n";
+                }
+                out.write(reply.getBytes("UTF-8"));
+                out.flush();
+            }
+        } catch (Exception e) {
+            // connection closed
+        }
+    }
+
+    private String bulk(String value) throws IOException {
+        return "$" + value.getBytes("UTF-8").length + "\r\n" + value + "\r\n";
+    }
+
+    void close() throws IOException {
+        serverSocket.close();
+        synchronized (sockets) {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.redisson;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.redisson.client.handler.FlushConsolidationHandler;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+public class FlushConsolidationHandlerTest {
+
+    @Test
+    public void testFlushInNextIteration() {
+        EmbeddedChannel channel = new EmbeddedChannel(new FlushConsolidationHandler(10, 1000));
+        channel.writeAndFlush(Unpooled.wrappedBuffer(new byte[] {1}));
+        channel.writeAndFlush(Unpooled.wrappedBuffer(new byte[] {2}));
+        Assert.assertNull(channel.readOutbound());
+
+        channel.runPendingTasks();
+        Assert.assertNotNull(channel.readOutbound());
+        Assert.assertNotNull(channel.readOutbound());
+        Assert.assertNull(channel.readOutbound());
+    }
+
+    @Test
+    public void testCommandsLimit() {
+        EmbeddedChannel channel = new EmbeddedChannel(new FlushConsolidationHandler(3, 1000));
+        channel.writeAndFlush(Unpooled.wrappedBuffer(new byte[] {1}));
+        channel.writeAndFlush(Unpooled.wrappedBuffer(new byte[] {2}));
+        Assert.assertNull(channel.readOutbound());
+        channel.writeAndFlush(Unpooled.wrappedBuffer(new byte[] {3}));
+        for (int i = 0; i < 3; i++) {
+            Assert.assertNotNull(channel.readOutbound());
+        }
+    }
+
+    @Test
+    public void testBytesLimit() {
+        EmbeddedChannel channel = new EmbeddedChannel(new FlushConsolidationHandler(10, 100));
+        channel.writeAndFlush(Unpooled.wrappedBuffer(new byte[150]));
+        Assert.assertNotNull(channel.readOutbound());
+    }
+
+    @Test
+    public void testFlushOnClose() {
+        EmbeddedChannel channel = new EmbeddedChannel(new FlushConsolidationHandler(10, 1000));
+        channel.writeAndFlush(Unpooled.wrappedBuffer(new byte[] {1}));
+        channel.close();
+        Assert.assertNotNull(channel.readOutbound());
+    }
+
+}
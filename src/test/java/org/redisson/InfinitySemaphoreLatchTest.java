@@ -0,0 +1,50 @@
+package org.redisson;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.redisson.misc.InfinitySemaphoreLatch;
+
+public class InfinitySemaphoreLatchTest {
+
+    @Test
+    public void testCloseAwaitsRelease() throws InterruptedException {
+        final InfinitySemaphoreLatch latch = new InfinitySemaphoreLatch();
+        Assert.assertTrue(latch.acquire());
+        Assert.assertTrue(latch.acquireAmount(2));
+
+        final CountDownLatch closed = new CountDownLatch(1);
+        final AtomicBoolean result = new AtomicBoolean();
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                result.set(latch.closeAndAwaitUninterruptibly());
+                closed.countDown();
+            }
+        };
+        thread.start();
+
+        Assert.assertFalse(closed.await(200, TimeUnit.MILLISECONDS));
+        Assert.assertFalse(latch.acquire());
+
+        // released by another thread
+        Thread releaseThread = new Thread() {
+            @Override
+            public void run() {
+                latch.release();
+                latch.release();
+            }
+        };
+        releaseThread.start();
+        releaseThread.join();
+        Assert.assertFalse(closed.await(200, TimeUnit.MILLISECONDS));
+
+        latch.release();
+        Assert.assertTrue(closed.await(1, TimeUnit.SECONDS));
+        Assert.assertTrue(result.get());
+    }
+
+}
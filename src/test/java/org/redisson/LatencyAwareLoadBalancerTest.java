@@ -0,0 +1,92 @@
+package org.redisson;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.redisson.client.RedisClient;
+import org.redisson.client.RedisConnection;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.connection.LatencyAwareLoadBalancer;
+import org.redisson.connection.MasterSlaveConnectionManager;
+import org.redisson.connection.MasterSlaveEntry;
+import org.redisson.connection.SubscribesConnectionEntry;
+
+public class LatencyAwareLoadBalancerTest {
+
+    @Test
+    public void testSlowEntryAvoided() {
+        RedisClient slowClient = new RedisClient("localhost", 6379);
+        RedisClient fastClient = new RedisClient("localhost", 6380);
+        SubscribesConnectionEntry slow = new SubscribesConnectionEntry(slowClient, 10, 10);
+        SubscribesConnectionEntry fast = new SubscribesConnectionEntry(fastClient, 10, 10);
+
+        for (int i = 0; i < 10; i++) {
+            slow.requestStarted();
+            slow.requestCompleted(TimeUnit.MILLISECONDS.toNanos(50));
+            fast.requestStarted();
+            fast.requestCompleted(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        Assert.assertEquals(0, slow.getOutstandingRequests());
+        Assert.assertTrue(slow.getResponseTime() > fast.getResponseTime());
+
+        LatencyAwareLoadBalancer balancer = new LatencyAwareLoadBalancer();
+        List<SubscribesConnectionEntry> entries = Arrays.asList(slow, fast);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertSame(fast, balancer.getEntry(entries));
+        }
+
+        // many requests in flight outweigh response time
+        for (int i = 0; i < 100; i++) {
+            fast.requestStarted();
+        }
+        Assert.assertSame(slow, balancer.getEntry(entries));
+
+        fast.setFreezed(true);
+        Assert.assertSame(slow, balancer.getEntry(entries));
+
+        slowClient.shutdown();
+        fastClient.shutdown();
+    }
+
+    @Test
+    public void testPipelinedReadsTracked() throws InterruptedException {
+        Config config = new Config();
+        config.useMasterSlaveConnection()
+                .setMasterAddress("127.0.0.1:6379")
+                .addSlaveAddress("127.0.0.1:6379")
+                .setPipelining(true)
+                .setLoadBalancer(new LatencyAwareLoadBalancer());
+        MasterSlaveConnectionManager connectionManager = new MasterSlaveConnectionManager(config.getMasterSlaveServersConfig(), config);
+        try {
+            CommandExecutorService executor = new CommandExecutorService(connectionManager);
+            for (int i = 0; i < 100; i++) {
+                executor.read("key", StringCodec.INSTANCE, RedisCommands.GET, "key");
+            }
+
+            MasterSlaveEntry<?> entry = connectionManager.getEntry(0);
+            Set<SubscribesConnectionEntry> readEntries = new HashSet<SubscribesConnectionEntry>();
+            for (int i = 0; i < 10; i++) {
+                RedisConnection connection = entry.connectionReadOp().syncUninterruptibly().getNow();
+                readEntries.add(entry.getReadEntry(connection.getRedisClient()));
+                entry.releaseRead(connection);
+            }
+            for (SubscribesConnectionEntry readEntry : readEntries) {
+                // last request could be completed after result has been returned
+                for (int i = 0; i < 10 && readEntry.getOutstandingRequests() > 0; i++) {
+                    Thread.sleep(10);
+                }
+                Assert.assertEquals(0, readEntry.getOutstandingRequests());
+                Assert.assertTrue(readEntry.getResponseTime() > 0);
+            }
+        } finally {
+            connectionManager.shutdown();
+        }
+    }
+
+}
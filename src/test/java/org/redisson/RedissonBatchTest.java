@@ -3,10 +3,12 @@ package org.redisson;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
 import org.junit.Test;
 import org.redisson.client.codec.StringCodec;
+import org.redisson.core.BatchListener;
 import org.redisson.core.RBatch;
 import org.redisson.core.RListAsync;
 
@@ -52,6 +54,66 @@ public class RedissonBatchTest extends BaseTest {
         Assert.assertEquals(210*5, res.size());
     }
 
+    @Test
+    public void testManySlots() {
+        RBatch batch = redisson.createBatch();
+        for (int i = 0; i < 5000; i++) {
+            batch.getAtomicLongAsync("counter" + i).addAndGetAsync(i);
+        }
+        List<?> res = batch.execute();
+        Assert.assertEquals(5000, res.size());
+        for (int i = 0; i < 5000; i++) {
+            Assert.assertEquals((long) i, res.get(i));
+        }
+    }
+
+    @Test
+    public void testStreaming() {
+        final AtomicInteger results = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+        RBatch batch = redisson.createBatch(100, 2, new BatchListener() {
+            @Override
+            public void onResult(int index, Object result) {
+                results.incrementAndGet();
+            }
+
+            @Override
+            public void onFailure(int index, Throwable cause) {
+                failures.incrementAndGet();
+            }
+        });
+        for (int i = 0; i < 10000; i++) {
+            batch.getAtomicLongAsync("counter" + (i % 10)).incrementAndGetAsync();
+        }
+        Assert.assertNull(batch.execute());
+
+        Assert.assertEquals(0, failures.get());
+        Assert.assertEquals(10000, results.get());
+        // windows of different nodes could be executed in any order,
+        // so only per key totals are checked
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(1000, redisson.getAtomicLong("counter" + i).get());
+        }
+    }
+
+    @Test
+    public void testStreamingSkipResult() {
+        RBatch batch = redisson.createBatch(10, 1, null);
+        for (int i = 0; i < 25; i++) {
+            batch.getList("list").addAsync(i);
+        }
+        Assert.assertNull(batch.execute());
+        Assert.assertEquals(25, redisson.getList("list").size());
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void testStreamingTwice() {
+        RBatch batch = redisson.createBatch(10, 1, null);
+        batch.getMap("test").putAsync("1", "2");
+        batch.execute();
+        batch.execute();
+    }
+
     @Test(expected=IllegalStateException.class)
     public void testTwice() {
         RBatch batch = redisson.createBatch();
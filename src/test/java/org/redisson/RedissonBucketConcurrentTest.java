@@ -0,0 +1,35 @@
+package org.redisson;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.redisson.core.RBucket;
+
+import io.netty.util.concurrent.Future;
+
+public class RedissonBucketConcurrentTest extends BaseConcurrentTest {
+
+    @Test
+    public void testGetAsync_SingleInstance() throws InterruptedException {
+        final String name = "testGetAsync_SingleInstance";
+
+        redisson.getBucket(name).set("value");
+
+        testSingleInstanceConcurrency(1000, new RedissonRunnable() {
+            @Override
+            public void run(Redisson redisson) {
+                RBucket<String> bucket = redisson.getBucket(name);
+                List<Future<String>> futures = new ArrayList<Future<String>>();
+                for (int i = 0; i < 100; i++) {
+                    futures.add(bucket.getAsync());
+                }
+                for (Future<String> future : futures) {
+                    Assert.assertEquals("value", future.syncUninterruptibly().getNow());
+                }
+            }
+        });
+    }
+
+}
@@ -1,17 +1,21 @@
 package org.redisson;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.junit.Assert;
 import org.junit.Test;
 import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.StringCodec;
 import org.redisson.codec.CborJacksonCodec;
 import org.redisson.codec.JsonJacksonCodec;
 import org.redisson.codec.KryoCodec;
 import org.redisson.codec.SerializationCodec;
+import org.redisson.core.RBucket;
 import org.redisson.core.RMap;
 
 public class RedissonCodecTest extends BaseTest {
@@ -85,4 +89,42 @@ public class RedissonCodecTest extends BaseTest {
 		test();
 
 	}
+
+	@Test
+	public void testString() {
+		Config config = createConfig();
+		config.setCodec(new StringCodec());
+		redisson = Redisson.create(config);
+
+		StringBuilder value = new StringBuilder();
+		for (int i = 0; i < 100000; i++) {
+			value.append("value\u00e9\u4e2d\ud83d\ude00").append(i);
+		}
+
+		RBucket<String> bucket = redisson.getBucket("string");
+		bucket.set(value.toString());
+		Assert.assertEquals(value.toString(), bucket.get());
+
+		RBucket<String> shortBucket = redisson.getBucket("short");
+		shortBucket.set("");
+		Assert.assertEquals("", shortBucket.get());
+		shortBucket.set("1");
+		Assert.assertEquals("1", shortBucket.get());
+	}
+
+	@Test
+	public void testLargeValue() {
+		Config config = createConfig();
+		config.setCodec(jsonCodec);
+		redisson = Redisson.create(config);
+
+		List<String> list = new ArrayList<String>();
+		for (int i = 0; i < 100000; i++) {
+			list.add("value" + i);
+		}
+
+		RBucket<List<String>> bucket = redisson.getBucket("large");
+		bucket.set(list);
+		Assert.assertEquals(list, bucket.get());
+	}
 }
@@ -11,6 +11,7 @@ import java.util.ListIterator;
 import org.hamcrest.Matchers;
 import org.junit.Assert;
 import org.junit.Test;
+import org.redisson.client.RedisTimeoutException;
 import org.redisson.core.RList;
 
 import io.netty.util.concurrent.Future;
@@ -33,6 +34,97 @@ public class RedissonListTest extends BaseTest {
         Assert.assertThat(list, Matchers.contains(1L, 2L, 3L, 1L, 24L, 3L));
     }
 
+    @Test
+    public void testStreamIterator() throws InterruptedException {
+        RList<Integer> list = redisson.getList("list");
+        List<Integer> values = new ArrayList<Integer>();
+        for (int i = 0; i < 50000; i++) {
+            values.add(i);
+        }
+        list.addAll(values);
+
+        Iterator<Integer> iterator = list.streamIterator(100);
+        for (int i = 0; i < 50000; i++) {
+            if (i % 10000 == 0) {
+                // let buffer overflow
+                Thread.sleep(100);
+            }
+            Assert.assertTrue(iterator.hasNext());
+            Assert.assertEquals(i, (int) iterator.next());
+        }
+        Assert.assertFalse(iterator.hasNext());
+
+        Assert.assertEquals(50000, list.size());
+    }
+
+    @Test
+    public void testStreamIteratorEmpty() {
+        RList<Integer> list = redisson.getList("list");
+        Iterator<Integer> iterator = list.streamIterator(10);
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    private List<String> largeValues(int size) {
+        char[] chars = new char[1000];
+        Arrays.fill(chars, 'a');
+        List<String> values = new ArrayList<String>();
+        for (int i = 0; i < size; i++) {
+            values.add(i + new String(chars));
+        }
+        return values;
+    }
+
+    @Test
+    public void testStreamIteratorSlowConsumer() throws InterruptedException {
+        Config config = createConfig();
+        config.useSingleServer().setTimeout(500).setRetryAttempts(0).setConnectionPoolSize(1);
+        Redisson r = Redisson.create(config);
+
+        RList<String> list = r.getList("list");
+        List<String> values = largeValues(3000);
+        list.addAll(values);
+
+        // consumption takes longer than command timeout
+        Iterator<String> iterator = list.streamIterator(10);
+        for (int i = 0; i < values.size(); i++) {
+            if (i % 10 == 0) {
+                Thread.sleep(10);
+            }
+            Assert.assertTrue(iterator.hasNext());
+            Assert.assertEquals(values.get(i), iterator.next());
+        }
+        Assert.assertFalse(iterator.hasNext());
+
+        Assert.assertEquals(3000, list.size());
+        r.shutdown();
+    }
+
+    @Test
+    public void testStreamIteratorAbandoned() throws InterruptedException {
+        Config config = createConfig();
+        config.useSingleServer().setTimeout(300).setConnectionPoolSize(1);
+        Redisson r = Redisson.create(config);
+
+        RList<String> list = r.getList("list");
+        list.addAll(largeValues(3000));
+
+        Iterator<String> iterator = list.streamIterator(10);
+        iterator.next();
+        Thread.sleep(1000);
+        try {
+            while (iterator.hasNext()) {
+                iterator.next();
+            }
+            Assert.fail();
+        } catch (RedisTimeoutException e) {
+            // expected
+        }
+
+        // suspended connection isn't reused
+        Assert.assertEquals(3000, list.size());
+        r.shutdown();
+    }
+
     @Test
     public void testAddAsync() throws InterruptedException {
         final RList<Long> list = redisson.getList("list");
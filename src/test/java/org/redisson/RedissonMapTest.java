@@ -5,7 +5,9 @@ import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 
@@ -123,6 +125,28 @@ public class RedissonMapTest extends BaseTest {
 
     }
 
+    @Test
+    public void testStreamIterators() {
+        RMap<Integer, Integer> map = redisson.getMap("simple");
+        Map<Integer, Integer> values = new HashMap<Integer, Integer>();
+        for (int i = 0; i < 1000; i++) {
+            values.put(i, i * 10);
+            map.fastPut(i, i * 10);
+        }
+
+        Set<Integer> keys = new HashSet<Integer>();
+        for (Iterator<Integer> iterator = map.keyStreamIterator(10); iterator.hasNext();) {
+            keys.add(iterator.next());
+        }
+        Assert.assertEquals(values.keySet(), keys);
+
+        Set<Integer> mapValues = new HashSet<Integer>();
+        for (Iterator<Integer> iterator = map.valueStreamIterator(10); iterator.hasNext();) {
+            mapValues.add(iterator.next());
+        }
+        Assert.assertEquals(new HashSet<Integer>(values.values()), mapValues);
+    }
+
     @Test
     public void testAddAndGet() throws InterruptedException {
         RMap<Integer, Integer> map = redisson.getMap("getAll");
@@ -195,6 +219,26 @@ public class RedissonMapTest extends BaseTest {
         Assert.assertEquals(expectedMap, filtered);
     }
 
+    @Test
+    public void testFilterKeysLargeMap() {
+        RMap<Integer, Integer> map = redisson.getMap("filterKeys");
+        Map<Integer, Integer> expectedMap = new HashMap<Integer, Integer>();
+        for (int i = 0; i < 1000; i++) {
+            map.fastPut(i, i*10);
+            if (i % 3 == 0) {
+                expectedMap.put(i, i*10);
+            }
+        }
+
+        Map<Integer, Integer> filtered = map.filterKeys(new Predicate<Integer>() {
+            @Override
+            public boolean apply(Integer input) {
+                return input % 3 == 0;
+            }
+        });
+        Assert.assertEquals(expectedMap, filtered);
+    }
+
     @Test
     public void testInteger() {
         Map<Integer, Integer> map = redisson.getMap("test_int");
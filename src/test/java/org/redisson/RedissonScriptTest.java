@@ -10,6 +10,7 @@ import org.hamcrest.Matchers;
 import org.junit.Assert;
 import org.junit.Test;
 import org.redisson.client.RedisException;
+import org.redisson.core.RMap;
 import org.redisson.core.RScript;
 import org.redisson.core.RScript.Mode;
 
@@ -62,6 +63,15 @@ public class RedissonScriptTest extends BaseTest {
         }
     }
 
+    @Test
+    public void testEvalAfterScriptFlush() {
+        RMap<String, String> map = redisson.getMap("map");
+        map.put("1", "2");
+        redisson.getScript().scriptFlush();
+        Assert.assertEquals("2", map.put("1", "3"));
+        Assert.assertEquals("3", map.put("1", "4"));
+    }
+
     @Test
     public void testScriptLoad() {
         redisson.getBucket("foo").set("bar");
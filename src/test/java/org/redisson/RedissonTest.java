@@ -1,15 +1,34 @@
 package org.redisson;
 
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.redisson.client.RedisClient;
+import org.redisson.client.RedisConnection;
+import org.redisson.client.RedisTimeoutException;
 import org.redisson.client.WriteRedisConnectionException;
+import org.redisson.client.protocol.RedisStrictCommand;
+import org.redisson.client.protocol.decoder.StringDataDecoder;
 import org.redisson.codec.SerializationCodec;
+import org.redisson.connection.SingleConnectionManager;
 import org.redisson.core.ClusterNode;
 import org.redisson.core.Node;
 import org.redisson.core.NodesGroup;
+import org.redisson.core.RBatch;
+import org.redisson.core.RMap;
+
+import io.netty.util.concurrent.Future;
 
 public class RedissonTest extends BaseTest {
 
@@ -26,6 +45,164 @@ public class RedissonTest extends BaseTest {
         r.getMap("test").put("1", new Dummy());
     }
 
+    @Test
+    public void testPipelining() {
+        Config config = createConfig();
+        config.useSingleServer().setConnectionPoolSize(1).setPipelining(true);
+        Redisson r = Redisson.create(config);
+
+        List<Future<Long>> futures = new ArrayList<Future<Long>>();
+        for (int i = 0; i < 1000; i++) {
+            futures.add(r.getAtomicLong("counter").incrementAndGetAsync());
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            Assert.assertEquals(i + 1, (long) futures.get(i).syncUninterruptibly().getNow());
+        }
+
+        List<Future<String>> values = new ArrayList<Future<String>>();
+        for (int i = 0; i < 100; i++) {
+            r.<String>getBucket("bucket" + i).setAsync("value" + i);
+            values.add(r.<String>getBucket("bucket" + i).getAsync());
+        }
+        for (int i = 0; i < values.size(); i++) {
+            Assert.assertEquals("value" + i, values.get(i).syncUninterruptibly().getNow());
+        }
+
+        r.flushdb();
+        r.shutdown();
+    }
+
+    @Test
+    public void testDecodeExecutor() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Config config = createConfig();
+        config.setDecodeExecutor(executor);
+        config.useSingleServer().setPipelining(true);
+        Redisson r = Redisson.create(config);
+
+        RMap<String, String> map = r.getMap("map");
+        for (int i = 0; i < 100; i++) {
+            map.fastPut("key" + i, "value" + i);
+        }
+        Assert.assertEquals(100, map.getAll(map.keySet()).size());
+        Assert.assertEquals("value50", map.get("key50"));
+
+        RBatch batch = r.createBatch();
+        batch.getMap("map").getAsync("key1");
+        batch.getMap("map").sizeAsync();
+        Assert.assertEquals(Arrays.<Object>asList("value1", 100), batch.execute());
+
+        r.flushdb();
+        r.shutdown();
+        executor.shutdown();
+    }
+
+    @Test
+    public void testEncodeInCallerThread() {
+        Config config = createConfig();
+        config.setEncodeInCallerThread(true);
+        Redisson r = Redisson.create(config);
+
+        RMap<String, List<Integer>> map = r.getMap("map");
+        map.put("key", Arrays.asList(1, 2, 3));
+        Assert.assertEquals(Arrays.asList(1, 2, 3), map.get("key"));
+
+        r.getBucket("bucket").set("value");
+        Assert.assertEquals("value", r.getBucket("bucket").get());
+
+        r.flushdb();
+        r.shutdown();
+    }
+
+    @Test
+    public void testFlushConsolidation() {
+        Config config = createConfig();
+        config.setFlushConsolidation(true);
+        config.useSingleServer().setConnectionPoolSize(1).setPipelining(true);
+        Redisson r = Redisson.create(config);
+
+        List<Future<Long>> futures = new ArrayList<Future<Long>>();
+        for (int i = 0; i < 1000; i++) {
+            futures.add(r.getAtomicLong("counter").incrementAndGetAsync());
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            Assert.assertEquals(i + 1, (long) futures.get(i).syncUninterruptibly().getNow());
+        }
+        Assert.assertEquals(1000, r.getAtomicLong("counter").get());
+
+        r.flushdb();
+        r.shutdown();
+    }
+
+    @Test
+    public void testCommandTimeout() throws InterruptedException {
+        Config config = createConfig();
+        config.useSingleServer().setTimeout(300).setRetryAttempts(0);
+        Redisson r = Redisson.create(config);
+
+        long startTime = System.currentTimeMillis();
+        Future<Object> future = r.getBlockingQueue("queue").pollAsync(3, TimeUnit.SECONDS);
+        Assert.assertTrue(future.await(2, TimeUnit.SECONDS));
+        Assert.assertTrue(future.cause() instanceof RedisTimeoutException);
+        Assert.assertTrue(System.currentTimeMillis() - startTime < 1000);
+
+        r.shutdown();
+    }
+
+    @Test
+    public void testMinimumIdleSize() throws InterruptedException {
+        Config config = createConfig();
+        config.useSingleServer().setClientName("minIdleTest")
+                .setConnectionMinimumIdleSize(10)
+                .setSubscriptionConnectionMinimumIdleSize(2);
+        Redisson r = Redisson.create(config);
+
+        RedisClient c = new RedisClient("localhost", 6379);
+        RedisConnection conn = c.connect();
+        RedisStrictCommand<String> clientList = new RedisStrictCommand<String>("CLIENT", "LIST", new StringDataDecoder());
+        int amount = 0;
+        for (int i = 0; i < 50 && amount < 12; i++) {
+            Thread.sleep(100);
+            amount = 0;
+            for (String line : conn.sync(clientList).split("\n")) {
+                if (line.contains("name=minIdleTest")) {
+                    amount++;
+                }
+            }
+        }
+        // created eagerly, before any command has been sent
+        Assert.assertTrue(amount >= 12);
+
+        c.shutdown();
+        r.shutdown();
+    }
+
+    @Test
+    public void testEntryList() {
+        Config config = createConfig();
+        Redisson r = Redisson.create(config);
+
+        r.getBucket("test1").set("1");
+        r.getBucket("test2").set("2");
+        Set<String> keys = new HashSet<String>();
+        for (String key : r.getKeys().getKeys()) {
+            keys.add(key);
+        }
+        Assert.assertTrue(keys.containsAll(Arrays.asList("test1", "test2")));
+
+        r.flushdb();
+        Assert.assertFalse(r.getKeys().getKeys().iterator().hasNext());
+        r.shutdown();
+    }
+
+    @Test
+    public void testRedirectSlot() {
+        Config config = createConfig();
+        SingleConnectionManager connectionManager = new SingleConnectionManager(config.getSingleServerConfig(), config);
+        Assert.assertEquals(0, connectionManager.getSlot(URI.create("//127.0.0.1:6379")));
+        Assert.assertEquals(-1, connectionManager.getSlot(URI.create("//127.0.0.1:6390")));
+        connectionManager.shutdown();
+    }
 
 //    @Test
     public void test() {
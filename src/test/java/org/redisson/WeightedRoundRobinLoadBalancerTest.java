@@ -0,0 +1,133 @@
+package org.redisson;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.redisson.client.RedisClient;
+import org.redisson.connection.SubscribesConnectionEntry;
+import org.redisson.connection.WeightedRoundRobinLoadBalancer;
+import org.redisson.core.Node;
+
+public class WeightedRoundRobinLoadBalancerTest {
+
+    @Test
+    public void testWeights() {
+        RedisClient bigClient = new RedisClient("localhost", 6379);
+        RedisClient smallClient = new RedisClient("localhost", 6380);
+        SubscribesConnectionEntry big = new SubscribesConnectionEntry(bigClient, 10, 10);
+        SubscribesConnectionEntry small = new SubscribesConnectionEntry(smallClient, 10, 10);
+        big.setWeight(3);
+
+        WeightedRoundRobinLoadBalancer balancer = new WeightedRoundRobinLoadBalancer();
+        List<SubscribesConnectionEntry> entries = Arrays.asList(big, small);
+
+        int bigAmount = 0;
+        int bigInRow = 0;
+        for (int i = 0; i < 400; i++) {
+            if (balancer.getEntry(entries) == big) {
+                bigAmount++;
+                bigInRow++;
+                // selections are spread evenly
+                Assert.assertTrue(bigInRow <= 3);
+            } else {
+                bigInRow = 0;
+            }
+        }
+        Assert.assertEquals(300, bigAmount);
+
+        small.setWeight(0);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertSame(big, balancer.getEntry(entries));
+        }
+
+        big.setFreezed(true);
+        small.setWeight(1);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertSame(small, balancer.getEntry(entries));
+        }
+
+        // drained node isn't used as fallback
+        small.setWeight(0);
+        Assert.assertNull(balancer.getEntry(entries));
+
+        bigClient.shutdown();
+        smallClient.shutdown();
+    }
+
+    @Test
+    public void testConcurrentWeights() throws InterruptedException {
+        RedisClient bigClient = new RedisClient("localhost", 6379);
+        RedisClient smallClient = new RedisClient("localhost", 6380);
+        final SubscribesConnectionEntry big = new SubscribesConnectionEntry(bigClient, 10, 10);
+        SubscribesConnectionEntry small = new SubscribesConnectionEntry(smallClient, 10, 10);
+        big.setWeight(3);
+
+        final WeightedRoundRobinLoadBalancer balancer = new WeightedRoundRobinLoadBalancer();
+        final List<SubscribesConnectionEntry> entries = Arrays.asList(big, small);
+
+        final AtomicInteger bigAmount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        if (balancer.getEntry(entries) == big) {
+                            bigAmount.incrementAndGet();
+                        }
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        // sum of current weights is preserved, so share stays proportional
+        Assert.assertEquals(30000, bigAmount.get(), 400);
+
+        bigClient.shutdown();
+        smallClient.shutdown();
+    }
+
+    @Test
+    public void testConfig() {
+        MasterSlaveServersConfig config = new MasterSlaveServersConfig();
+        config.setSlaveWeight("127.0.0.1:6380", 4);
+        Assert.assertEquals(4, config.getSlaveWeight("127.0.0.1", 6380));
+        Assert.assertEquals(1, config.getSlaveWeight("127.0.0.1", 6381));
+        Assert.assertEquals(4, new MasterSlaveServersConfig(config).getSlaveWeight("127.0.0.1", 6380));
+    }
+
+    @Test
+    public void testNodesGroupWeight() {
+        Config config = new Config();
+        config.useMasterSlaveConnection()
+                .setMasterAddress("127.0.0.1:6379")
+                .setLoadBalancer(new WeightedRoundRobinLoadBalancer());
+        Redisson redisson = Redisson.create(config);
+
+        int updated = 0;
+        for (Node node : redisson.getNodesGroup().getNodes()) {
+            try {
+                redisson.getNodesGroup().setWeight(node, 5);
+                updated++;
+            } catch (IllegalArgumentException e) {
+                // master node isn't used for reads
+            }
+        }
+        Assert.assertEquals(1, updated);
+
+        redisson.getBucket("weighted").set("value");
+        Assert.assertEquals("value", redisson.getBucket("weighted").get());
+
+        redisson.flushdb();
+        redisson.shutdown();
+    }
+
+}